@@ -159,10 +159,6 @@ public class DependencyComponent extends XulElement implements AfterCompose {
         this.destination = findTaskComponent(idTaskEnd);
     }
 
-    public void zoomChanged() {
-        redrawDependency();
-    }
-
     public void redrawDependency() {
         response("redrawDependency" + getId(), new AuInvoke(this, "draw"));
     }
@@ -37,6 +37,7 @@ import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
 import org.zkoss.ganttz.util.ComponentsFinder;
 import org.zkoss.ganttz.util.MenuBuilder;
 import org.zkoss.ganttz.util.MenuBuilder.ItemAction;
+import org.zkoss.zk.au.out.AuInvoke;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.event.Event;
 import org.zkoss.zk.ui.ext.AfterCompose;
@@ -179,9 +180,7 @@ public class DependencyList extends XulElement implements AfterCompose {
                     if ( !isInPage() ) {
                         return;
                     }
-                    for (DependencyComponent dependencyComponent : getDependencyComponents()) {
-                        dependencyComponent.zoomChanged();
-                    }
+                    redrawDependencies();
                 }
             };
 
@@ -246,14 +245,12 @@ public class DependencyList extends XulElement implements AfterCompose {
         return getGanttPanel().getTimeTrackerComponent();
     }
 
+    /**
+     * Sends a single response to draw again all the dependencies shown on the client, instead of one per
+     * dependency. With thousands of dependencies the latter makes the response too big.
+     */
     void redrawDependencies() {
-        redrawDependencyComponents(getDependencyComponents());
-    }
-
-    private void redrawDependencyComponents(List<DependencyComponent> dependencyComponents) {
-        for (DependencyComponent dependencyComponent : dependencyComponents) {
-            dependencyComponent.redrawDependency();
-        }
+        response("redrawDependencies", new AuInvoke(this, "redrawAll"));
     }
 
     void taskRemoved(Task task) {
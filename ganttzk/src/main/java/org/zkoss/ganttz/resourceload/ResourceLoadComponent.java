@@ -25,6 +25,7 @@ import static org.zkoss.ganttz.i18n.I18nHelper._;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,12 +39,12 @@ import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
 import org.zkoss.ganttz.util.MenuBuilder;
 import org.zkoss.ganttz.util.WeakReferencedListeners;
 import org.zkoss.zk.ui.sys.ContentRenderer;
-import org.zkoss.zul.Div;
 import org.zkoss.zul.Menupopup;
 import org.zkoss.zul.impl.XulElement;
 
 /**
  * This class wraps ResourceLoad data inside an specific HTML Div component.
+ * The load periods are painted by the client from a compact array, not as child components.
  *
  * @author Lorenzo Tilve Álvaro <ltilve@igalia.com>
  * @author Vova Perebykivskyi <vova@libreplan-enterprise.com>
@@ -58,30 +59,42 @@ public class ResourceLoadComponent extends XulElement {
 
     private WeakReferencedListeners<ISeeScheduledOfListener> scheduleListeners = WeakReferencedListeners.create();
 
-    private Map<Div, Menupopup> contextMenus = new HashMap<>();
+    private Menupopup contextMenu;
+
+    /**
+     * Load periods already converted to pixels, by zoom level and dates
+     * mapper. The load line doesn't change while this component lives, a new
+     * component is created when the allocations change.
+     */
+    private Map<List<Object>, List<Object>> loadPeriodsCache = new HashMap<>();
+
+    private List<Object> loadPeriods;
 
     private ResourceLoadComponent(final TimeTracker timeTracker, final LoadTimeLine loadLine) {
         this.loadLine = loadLine;
         this.timeTracker = timeTracker;
-        createChildren(loadLine, timeTracker.getMapper());
+        this.loadPeriods = getLoadPeriodsFor(timeTracker.getDetailLevel(), timeTracker.getMapper());
+
+        if (loadLine.getRole().isVisibleScheduled()) {
+            addDoubleClickAction();
+            addContextMenu();
+        }
 
         /* Do not replace it with lambda */
         zoomChangedListener = new IZoomLevelChangedListener() {
 
             /**
              * In general it is working like, on every zoomChanged :
-             * 1. Remove all LoadLines ( divs ).
-             * 2. Create new ones ( for selected zoom mode ).
-             * 3. Redraw insertionPointRightPanel component ( Div ).
+             * 1. Send the load periods for the selected zoom mode, computing them only the first time.
+             * 2. Redraw insertionPointRightPanel component ( Div ).
              */
             @Override
             public void zoomLevelChanged(ZoomLevel detailLevel) {
-                getChildren().clear();
-                createChildren(loadLine, timeTracker.getMapper());
+                loadPeriods = getLoadPeriodsFor(detailLevel, timeTracker.getMapper());
                 if ( !getFellows().isEmpty() ) {
                     getFellow("insertionPointRightPanel").invalidate();
                 }
-                invalidate();
+                smartUpdate("loadPeriods", loadPeriods);
             }
         };
 
@@ -92,28 +105,51 @@ public class ResourceLoadComponent extends XulElement {
         return new ResourceLoadComponent(timeTracker, loadLine);
     }
 
-    private void createChildren(final LoadTimeLine loadLine, IDatesMapper mapper) {
-        List<Div> divs = createDivsForPeriods(mapper, loadLine.getLoadPeriods());
-        for (Div div : divs) {
-            appendChild(div);
+    private List<Object> getLoadPeriodsFor(ZoomLevel zoomLevel, IDatesMapper mapper) {
+        List<Object> key = Arrays.asList(
+                zoomLevel,
+                mapper.getHorizontalSize(),
+                mapper.getMilisecondsPerPixel(),
+                mapper.toPixelsAbsolute(0));
+
+        List<Object> result = loadPeriodsCache.get(key);
+        if (result == null) {
+            result = encode(mapper, loadLine.getLoadPeriods());
+            loadPeriodsCache.put(key, result);
         }
 
-        if (loadLine.getRole().isVisibleScheduled()) {
-            for (Div div : divs) {
-                addDoubleClickAction(div, loadLine);
-                addContextMenu(divs, div, loadLine);
+        return result;
+    }
+
+    /**
+     * The periods are sent to the client as a flat array with four values for each one: left and width in pixels,
+     * load category and tooltip. Periods that take no pixels at the current zoom level are not sent.
+     */
+    private static List<Object> encode(IDatesMapper datesMapper, List<LoadPeriod> loadPeriods) {
+        List<Object> result = new ArrayList<>(loadPeriods.size() * 4);
+        for (LoadPeriod loadPeriod : loadPeriods) {
+            int width = getWidthPixels(datesMapper, loadPeriod);
+            if (width == 0) {
+                continue;
             }
+
+            result.add(getStartPixels(datesMapper, loadPeriod));
+            result.add(width);
+            result.add(loadPeriod.getLoadLevel().getCategory().toString());
+            result.add(getTooltip(loadPeriod));
         }
+
+        return result;
     }
 
-    private void addDoubleClickAction(final Div div, final LoadTimeLine loadLine) {
-        div.addEventListener("onDoubleClick", event -> schedule(loadLine));
+    private void addDoubleClickAction() {
+        addEventListener("onDoubleClick", event -> schedule(loadLine));
     }
 
-    private void addContextMenu(final List<Div> divs, final Div div, final LoadTimeLine loadLine) {
+    private void addContextMenu() {
         /*
          * This EventListener could be replaced with
-         * div.setContext(getContextMenuFor(divs, div, loadLine)) but
+         * setContext(getContextMenu()) but
          * in this case this is not valid as we'll got an exception.
          *
          * As this component (ResourceLoadComponent) hasn't be added to
@@ -121,9 +157,9 @@ public class ResourceLoadComponent extends XulElement {
          * non-null page is required by MenuBuilder or a NullPointerException will be raised.
          */
 
-        div.addEventListener("onRightClick", event ->  {
+        addEventListener("onRightClick", event ->  {
             try {
-                getContextMenuFor(divs, div, loadLine).open(div);
+                getContextMenu().open(this, "at_pointer");
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -138,23 +174,20 @@ public class ResourceLoadComponent extends XulElement {
         scheduleListeners.addListener(seeScheduledOfListener);
     }
 
-    private Menupopup getContextMenuFor(final List<Div> divs, final Div div, final LoadTimeLine loadLine) {
-        if (contextMenus.get(div) == null) {
+    private Menupopup getContextMenu() {
+        if (contextMenu == null) {
 
-            MenuBuilder<Div> menuBuilder = MenuBuilder.on(getPage(), divs);
+            MenuBuilder<ResourceLoadComponent> menuBuilder = MenuBuilder.on(getPage(), this);
 
             menuBuilder.item(
                     _("See resource allocation"),
                     "/common/img/ico_allocation.png",
                     (chosen, event) -> schedule(loadLine));
 
-            Menupopup result = menuBuilder.createWithoutSettingContext();
-            contextMenus.put(div, result);
-
-            return result;
-
+            contextMenu = menuBuilder.createWithoutSettingContext();
         }
-        return contextMenus.get(div);
+
+        return contextMenu;
     }
 
     public String getResourceLoadName() {
@@ -169,44 +202,23 @@ public class ResourceLoadComponent extends XulElement {
         return loadLine;
     }
 
-    private static List<Div> createDivsForPeriods(IDatesMapper datesMapper, List<LoadPeriod> loadPeriods) {
-        List<Div> result = new ArrayList<>();
-        for (LoadPeriod loadPeriod : loadPeriods) {
-            result.add(createDivForPeriod(datesMapper, loadPeriod));
-        }
-        return result;
-    }
-
-    private static Div createDivForPeriod(IDatesMapper datesMapper, LoadPeriod loadPeriod) {
-        Div result = new Div();
-        result.setClass(String.format("taskassignmentinterval %s", loadPeriod.getLoadLevel().getCategory()));
-
+    private static String getTooltip(LoadPeriod loadPeriod) {
         String load = _("Load: {0}%", loadPeriod.getLoadLevel().getPercentage()) + ", ";
 
         if (loadPeriod.getLoadLevel().getPercentage() == Integer.MAX_VALUE) {
             load = "";
         }
 
-        result.setTooltiptext(
-                load +
-                        _("available effort: {0}, assigned effort: {1}",
-                                loadPeriod.getAvailableEffort(),
-                                loadPeriod.getAssignedEffort()));
-
-        result.setLeft(forCSS(getStartPixels(datesMapper, loadPeriod)));
-        result.setWidth(forCSS(getWidthPixels(datesMapper, loadPeriod)));
-
-        return result;
+        return load +
+                _("available effort: {0}, assigned effort: {1}",
+                        loadPeriod.getAvailableEffort(),
+                        loadPeriod.getAssignedEffort());
     }
 
     private static int getWidthPixels(IDatesMapper datesMapper, LoadPeriod loadPeriod) {
         return Math.max(loadPeriod.getEnd().toPixels(datesMapper) - getStartPixels(datesMapper, loadPeriod), 0);
     }
 
-    private static String forCSS(int pixels) {
-        return String.format("%dpx", pixels);
-    }
-
     private static int getStartPixels(IDatesMapper datesMapper, LoadPeriod loadPeriod) {
         return loadPeriod.getStart().toPixels(datesMapper);
     }
@@ -218,6 +230,7 @@ public class ResourceLoadComponent extends XulElement {
     protected void renderProperties(ContentRenderer renderer) throws IOException{
         render(renderer, "_resourceLoadName", getResourceLoadName());
         render(renderer, "_resourceLoadType", getResourceLoadType());
+        render(renderer, "_loadPeriods", loadPeriods);
 
         super.renderProperties(renderer);
     }
@@ -92,6 +92,29 @@ public final class DetailItem {
         this.deadlineOffset = deadlineoffset;
     }
 
+    private DetailItem(DetailItem other) {
+        this.size = other.size;
+        this.name = other.name;
+        this.even = other.even;
+        this.bankHoliday = other.bankHoliday;
+        this.bankHolidayWeek = other.bankHolidayWeek;
+        this.currentPeriod = other.currentPeriod;
+        this.currentDayOffset = other.currentDayOffset;
+        this.projectStart = other.projectStart;
+        this.projectStartOffset = other.projectStartOffset;
+        this.deadlinePeriod = other.deadlinePeriod;
+        this.deadlineOffset = other.deadlineOffset;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+    }
+
+    /**
+     * Items are modified after being created, so shared ones must be copied before handing them out.
+     */
+    DetailItem copy() {
+        return new DetailItem(this);
+    }
+
     public String getBankHolidayWeek() {
         return bankHolidayWeek;
     }
@@ -0,0 +1,105 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.timetracker.zoom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.util.Interval;
+import org.zkoss.util.Locales;
+
+/**
+ * Keeps the {@link DetailItem} generated for each zoom level and interval, so
+ * they are shared by all the time trackers of the application instead of being
+ * generated again on every zoom and view.
+ * <p>
+ * The cached items are never modified. Each caller receives copies, so the
+ * {@link IDetailItemModifier} and the even marking can still change them. The
+ * current locale and day are part of the key, as the names and the current day
+ * mark depend on them.
+ */
+final class DetailItemsCache {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Map<List<Object>, List<DetailItem>> cache =
+            new LinkedHashMap<List<Object>, List<DetailItem>>(MAX_ENTRIES, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, List<DetailItem>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private DetailItemsCache() {
+    }
+
+    static List<DetailItem> get(ZoomLevel zoomLevel,
+                                boolean firstLevel,
+                                Interval realInterval,
+                                Supplier<Collection<DetailItem>> generator) {
+
+        List<Object> key = Arrays.asList(
+                zoomLevel,
+                firstLevel,
+                realInterval.getStart(),
+                realInterval.getFinish(),
+                Locales.getCurrent(),
+                new LocalDate());
+
+        List<DetailItem> shared;
+        synchronized (cache) {
+            shared = cache.get(key);
+        }
+
+        if ( shared == null ) {
+            shared = Collections.unmodifiableList(new ArrayList<>(generator.get()));
+            synchronized (cache) {
+                cache.put(key, shared);
+            }
+        }
+
+        return copy(shared);
+    }
+
+    private static List<DetailItem> copy(List<DetailItem> items) {
+        List<DetailItem> result = new ArrayList<>(items.size());
+        for (DetailItem each : items) {
+            result.add(each.copy());
+        }
+
+        return result;
+    }
+
+    static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+}
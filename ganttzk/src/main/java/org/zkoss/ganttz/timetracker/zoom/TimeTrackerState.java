@@ -167,23 +167,23 @@ public abstract class TimeTrackerState {
     }
 
     private final Collection<DetailItem> createDetailsForFirstLevel(Interval interval) {
-        Interval realInterval = getRealIntervalFor(interval);
+        final Interval realInterval = getRealIntervalFor(interval);
 
-        return createDetails(
+        return DetailItemsCache.get(getZoomLevel(), true, realInterval, () -> createDetails(
                 realInterval,
                 getPeriodsFirstLevelGenerator(realInterval.getStart()),
-                getDetailItemCreatorFirstLevel());
+                getDetailItemCreatorFirstLevel()));
     }
 
     protected abstract Iterator<LocalDate> getPeriodsFirstLevelGenerator(LocalDate start);
 
     private final Collection<DetailItem> createDetailsForSecondLevel(Interval interval) {
-        Interval realInterval = getRealIntervalFor(interval);
+        final Interval realInterval = getRealIntervalFor(interval);
 
-        return createDetails(
+        return DetailItemsCache.get(getZoomLevel(), false, realInterval, () -> createDetails(
                 realInterval,
                 getPeriodsSecondLevelGenerator(realInterval.getStart()),
-                getDetailItemCreatorSecondLevel());
+                getDetailItemCreatorSecondLevel()));
     }
 
     protected abstract Iterator<LocalDate> getPeriodsSecondLevelGenerator(LocalDate start);
@@ -25,11 +25,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -56,10 +54,19 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
 
         private T value;
 
-        private List<Node<T>> children = new LinkedList<>();
+        private List<Node<T>> children = new ArrayList<>();
 
         private Node<T> parentNode;
 
+        /**
+         * Position of this node inside the children of its parent. It's only
+         * reliable while {@link #childrenIndexesOutdated} is <code>false</code>
+         * in the parent.
+         */
+        private int indexInParent;
+
+        private boolean childrenIndexesOutdated = false;
+
         public Node(T value) {
             this.value = value;
         }
@@ -69,78 +76,94 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
                 n.parentNode = this;
             }
 
-            if ( position == null ) {
+            if ( position == null || position == children.size() ) {
+                int index = children.size();
                 children.addAll(nodes);
+
+                if ( !childrenIndexesOutdated ) {
+                    for (Node<T> n : nodes) {
+                        n.indexInParent = index++;
+                    }
+                }
             } else {
                 children.addAll(position, nodes);
+                childrenIndexesOutdated = true;
             }
         }
 
         public int[] down(Node<T> node) {
-            ListIterator<Node<T>> listIterator = children.listIterator();
+            int index = getIndexOf(node);
 
-            while (listIterator.hasNext()) {
-                Node<T> current = listIterator.next();
+            if ( index < 0 || index + 1 >= children.size() ) {
+                return new int[] {};
+            }
+            swap(index, index + 1);
 
-                if ( current == node && listIterator.hasNext() ) {
-                    int nextIndex = listIterator.nextIndex();
-                    listIterator.remove();
-                    listIterator.next();
-                    listIterator.add(node);
+            return new int[] { index, index + 1 };
+        }
 
-                    return new int[] { nextIndex - 1, nextIndex };
-                }
+        public int[] up(Node<T> node) {
+            int index = getIndexOf(node);
+
+            if ( index <= 0 ) {
+                return new int[] {};
             }
+            swap(index - 1, index);
 
-            return new int[] {};
+            return new int[] { index - 1, index };
         }
 
-        public int[] up(Node<T> node) {
-            ListIterator<Node<T>> listIterator = children.listIterator(children.size());
+        private void swap(int i, int j) {
+            Collections.swap(children, i, j);
+            children.get(i).indexInParent = i;
+            children.get(j).indexInParent = j;
+        }
 
-            while ( listIterator.hasPrevious() ) {
-                Node<T> current = listIterator.previous();
+        private boolean isRoot() {
+            return parentNode == null;
+        }
 
-                if ( current == node && listIterator.hasPrevious() ) {
-                    listIterator.remove();
-                    int previousIndex = listIterator.previousIndex();
-                    listIterator.previous();
-                    listIterator.add(current);
+        private int getIndexOf(Node<T> child) {
+            if ( child.parentNode != this ) {
+                return -1;
+            }
 
-                    return new int[] { previousIndex, previousIndex + 1 };
+            if ( childrenIndexesOutdated ) {
+                int i = 0;
+                for (Node<T> each : children) {
+                    each.indexInParent = i++;
                 }
+                childrenIndexesOutdated = false;
             }
 
-            return new int[] {};
+            return child.indexInParent;
         }
 
-        private void until(LinkedList<Integer> result, Node<T> parent) {
-            if ( !parent.equals(this) ) {
+        /**
+         * @return the positions to go from <code>parent</code> to this node or
+         *         an empty array if <code>parent</code> is not an ancestor
+         */
+        public int[] until(Node<T> parent) {
+            int depth = 0;
+            Node<T> current = this;
 
-                if ( isRoot() ) {
+            while ( current != parent ) {
+                if ( current.isRoot() ) {
 
                     /* Final reached, but parent not found */
-                    result.clear();
-
-                } else {
-                    result.add(0, this.parentNode.getIndexOf(this));
-                    this.parentNode.until(result, parent);
+                    return new int[0];
                 }
+                current = current.parentNode;
+                depth++;
             }
 
-        }
-
-        private boolean isRoot() {
-            return parentNode == null;
-        }
+            int[] result = new int[depth];
+            current = this;
 
-        private int getIndexOf(Node<T> child) {
-            return children.indexOf(child);
-        }
-
-        public LinkedList<Integer> until(Node<T> parent) {
-            LinkedList<Integer> result = new LinkedList<>();
-            until(result, parent);
+            for (int i = depth - 1; i >= 0; i--) {
+                result[i] = current.parentNode.getIndexOf(current);
+                current = current.parentNode;
+            }
 
             return result;
         }
@@ -149,6 +172,10 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
             int positionInParent = parentNode.getIndexOf(this);
             parentNode.children.remove(positionInParent);
 
+            if ( positionInParent < parentNode.children.size() ) {
+                parentNode.childrenIndexesOutdated = true;
+            }
+
             return positionInParent;
         }
 
@@ -160,7 +187,11 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
 
     private final Node<T> root;
 
-    private transient Map<T, Node<T>> nodesByDomainObject = new WeakHashMap<>();
+    /**
+     * Keyed by identity, so lookups don't depend on the domain objects'
+     * <code>hashCode</code>, which can change while they are on the tree.
+     */
+    private transient Map<T, Node<T>> nodesByDomainObject = new IdentityHashMap<>();
 
     private static <T> Node<T> wrapOne(T object) {
         return new Node<>(object);
@@ -181,13 +212,19 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
     }
 
     private Node<T> find(Object domainObject) {
+        Node<T> result = nodesByDomainObject.get(domainObject);
+        if ( result != null ) {
+            return result;
+        }
+
+        /* Equal but not the same instance */
         for (Map.Entry<T, Node<T>> item : nodesByDomainObject.entrySet()) {
             if ( item.getKey() != null && item.getKey().equals(domainObject) ) {
                 return item.getValue();
             }
         }
 
-        return nodesByDomainObject.get(domainObject);
+        return null;
     }
 
     private static <T> T unwrap(Node<T> node) {
@@ -235,9 +272,8 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
         if ( parentNode == null || lastNode == null)  {
             return new int[0];
         }
-        List<Integer> path = lastNode.until(parentNode);
 
-        return asIntArray(path);
+        return lastNode.until(parentNode);
     }
 
     private boolean shouldILookForParentValue(Object parent, Node<T> parentNode) {
@@ -281,17 +317,6 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
         return valid + "^" + invalid;
     }
 
-    private int[] asIntArray(List<Integer> path) {
-        int[] result = new int[path.size()];
-        int i = 0;
-
-        for (Integer integer : path) {
-            result[i++] = integer;
-        }
-
-        return result;
-    }
-
     @Override
     public T getRoot() {
         return unwrap(root);
@@ -451,8 +476,16 @@ public class MutableTreeModel<T> extends AbstractTreeModel {
         }
 
         int positionInParent = found.remove();
-        nodesByDomainObject.remove(node);
-        fireEvent(TreeDataEvent.INTERVAL_REMOVED, getPath(found.parentNode), positionInParent, positionInParent);
+        removeFromNodesAndDomainMapping(found);
+        fireEvent(TreeDataEvent.INTERVAL_REMOVED, getPath(found.parentNode.value), positionInParent, positionInParent);
+    }
+
+    private void removeFromNodesAndDomainMapping(Node<T> node) {
+        nodesByDomainObject.remove(node.value);
+
+        for (Node<T> each : node.children) {
+            removeFromNodesAndDomainMapping(each);
+        }
     }
 
     public T getParent(T node) {
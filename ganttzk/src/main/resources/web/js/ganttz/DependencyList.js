@@ -4,6 +4,12 @@ ganttz.DependencyList = zk.$extends(zk.Widget, {
     $init : function(){
         this.$supers('$init', arguments);
         this.$class.setInstance(this);
+    },
+    redrawAll : function() {
+        for (var child = this.firstChild; child; child = child.nextSibling) {
+            // UnlinkedDependencyComponent also has draw, which adds handlers
+            if (child.$instanceof(ganttz.DependencyComponent)) child.draw();
+        }
     }
 },{
     setInstance : function(instance){
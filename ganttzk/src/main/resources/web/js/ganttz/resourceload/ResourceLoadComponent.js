@@ -5,6 +5,43 @@ ganttz.resourceload.ResourceLoadComponent = zk.$extends(
     {
         $define : {
             resourceLoadName : null,
-            resourceLoadType : null
+            resourceLoadType : null,
+
+            /*
+             * Flat array with left, width, load category and tooltip of every load period.
+             */
+            loadPeriods : function() {
+                this.rerender();
+            }
+        },
+
+        /*
+         * Only the load periods react to double and right clicks, as they did when each one was a component.
+         */
+        doDoubleClick_ : function(evt) {
+            if ( this._isLoadPeriod(evt.domTarget) ) {
+                this.$supers('doDoubleClick_', arguments);
+            }
+        },
+
+        doRightClick_ : function(evt) {
+            if ( this._isLoadPeriod(evt.domTarget) ) {
+                this.$supers('doRightClick_', arguments);
+            }
+        },
+
+        _isLoadPeriod : function(node) {
+            return jq(node).hasClass('taskassignmentinterval');
+        },
+
+        redrawLoadPeriods_ : function(out) {
+            var periods = this._loadPeriods || [];
+
+            for (var i = 0; i + 3 < periods.length; i += 4) {
+                out.push(
+                    '<div class="taskassignmentinterval ', periods[i + 2], '"',
+                    ' style="left:', periods[i], 'px;width:', periods[i + 1], 'px;"',
+                    ' title="', zUtl.encodeXML(periods[i + 3]), '"></div>');
+            }
         }
-    });
\ No newline at end of file
+    });
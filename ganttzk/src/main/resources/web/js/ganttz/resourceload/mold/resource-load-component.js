@@ -22,9 +22,7 @@ function (out) {
 
     out.push('<span class="resourceload_name">', this.getResourceLoadName(),'</span>');
 
-    for (var w = this.firstChild; w; w = w.nextSibling) {
-        w.redraw(out);
-    }
+    this.redrawLoadPeriods_(out);
 
     out.push('</div>');
 }
\ No newline at end of file
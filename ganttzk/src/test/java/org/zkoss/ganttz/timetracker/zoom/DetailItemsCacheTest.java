@@ -0,0 +1,89 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.timetracker.zoom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.ganttz.util.Interval;
+
+public class DetailItemsCacheTest {
+
+    private final Interval interval = new Interval(new LocalDate(2010, 1, 1), new LocalDate(2012, 1, 1));
+
+    @Before
+    public void clearCache() {
+        DetailItemsCache.clear();
+    }
+
+    private List<DetailItem> secondLevel(ZoomLevel zoomLevel, IDetailItemModifier modifier) {
+        return new ArrayList<>(zoomLevel
+                .getTimeTrackerState(SeveralModifiers.empty(), modifier)
+                .getSecondLevelDetails(interval));
+    }
+
+    @Test
+    public void theSameItemsAreGeneratedAgainButAsNewInstances() {
+        List<DetailItem> first = secondLevel(ZoomLevel.DETAIL_THREE, SeveralModifiers.empty());
+        List<DetailItem> second = secondLevel(ZoomLevel.DETAIL_THREE, SeveralModifiers.empty());
+
+        assertThat(second.size(), equalTo(first.size()));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(second.get(i), not(sameInstance(first.get(i))));
+            assertThat(second.get(i).getName(), equalTo(first.get(i).getName()));
+            assertThat(second.get(i).getStartDate(), equalTo(first.get(i).getStartDate()));
+            assertThat(second.get(i).getSize(), equalTo(first.get(i).getSize()));
+        }
+    }
+
+    @Test
+    public void modificationsAreNotSharedBetweenCalls() {
+        IDetailItemModifier markAsBankHoliday = (item, zoomLevel) -> {
+            item.markBankHoliday();
+            return item;
+        };
+        secondLevel(ZoomLevel.DETAIL_FOUR, markAsBankHoliday);
+
+        for (DetailItem each : secondLevel(ZoomLevel.DETAIL_FOUR, SeveralModifiers.empty())) {
+            assertFalse(each.isBankHoliday());
+        }
+    }
+
+    @Test
+    public void eachZoomLevelHasItsOwnItems() {
+        List<DetailItem> quarters = secondLevel(ZoomLevel.DETAIL_TWO, SeveralModifiers.empty());
+        List<DetailItem> months = secondLevel(ZoomLevel.DETAIL_THREE, SeveralModifiers.empty());
+
+        assertThat(quarters.get(0).getName(), equalTo("Q1"));
+        assertThat(months.size(), not(equalTo(quarters.size())));
+    }
+
+}
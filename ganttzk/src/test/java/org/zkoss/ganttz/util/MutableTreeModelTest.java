@@ -195,6 +195,33 @@ public class MutableTreeModelTest {
         assertTrue(canBeRetrievedWithGetPath(model, grandChild));
     }
 
+    @Test
+    public void getPathIsUpdatedAfterInsertionsRemovalsAndMoves() {
+        MutableTreeModel<Prueba> model = MutableTreeModel.create(Prueba.class);
+        Prueba p1 = new Prueba();
+        Prueba p2 = new Prueba();
+        Prueba p3 = new Prueba();
+        model.add(model.getRoot(), Arrays.asList(p1, p2, p3));
+        Prueba grandChild = new Prueba();
+        model.add(p3, grandChild);
+
+        assertThat(model.getPath(grandChild), equalTo(new int[] { 2, 0 }));
+
+        model.add(model.getRoot(), 0, Collections.singletonList(new Prueba()));
+        assertThat(model.getPath(grandChild), equalTo(new int[] { 3, 0 }));
+
+        model.remove(p1);
+        assertThat(model.getPath(grandChild), equalTo(new int[] { 2, 0 }));
+
+        model.up(p3);
+        assertThat(model.getPath(grandChild), equalTo(new int[] { 1, 0 }));
+        assertThat(model.getPath(p2), equalTo(new int[] { 2 }));
+
+        model.remove(p3);
+        assertFalse(model.contains(grandChild));
+        assertThat(model.getPath(p2), equalTo(new int[] { 1 }));
+    }
+
     private static <T> boolean canBeRetrievedWithGetPath(final MutableTreeModel<T> tree, T object) {
         int[] path = tree.getPath(object);
 
@@ -500,18 +500,6 @@ public class AvailabilityTimeLine {
         return result;
     }
 
-    private List<Interval> intersectWithAdjacent(Interval interval) {
-        List<Interval> result = new ArrayList<>();
-        List<Interval> adjacent = getAdjacent(interval);
-
-        for (Interval each : adjacent) {
-            assert interval.overlaps(each);
-            result.add(interval.intersect(each));
-        }
-
-        return result;
-    }
-
     private void removeAdjacent(int insertionPoint, Interval inserted) {
         ListIterator<Interval> listIterator = invalids.listIterator(insertionPoint + 1);
         while (listIterator.hasNext()) {
@@ -548,14 +536,67 @@ public class AvailabilityTimeLine {
 
     public AvailabilityTimeLine and(AvailabilityTimeLine another) {
         AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
-        inserting(result, invalids);
-        inserting(result, another.invalids);
+        result.invalids = coalesce(merge(invalids, another.invalids));
         result.setVetoer(and(this.vetoer, another.vetoer));
 
         return result;
     }
 
+    /**
+     * Merges two lists of intervals sorted by {@link Interval#compareTo} into
+     * a new sorted list.
+     */
+    private static List<Interval> merge(List<Interval> a, List<Interval> b) {
+        List<Interval> result = new ArrayList<>(a.size() + b.size());
+        int i = 0;
+        int j = 0;
+
+        while (i < a.size() && j < b.size()) {
+            if ( a.get(i).compareTo(b.get(j)) <= 0 ) {
+                result.add(a.get(i++));
+            } else {
+                result.add(b.get(j++));
+            }
+        }
+        result.addAll(a.subList(i, a.size()));
+        result.addAll(b.subList(j, b.size()));
+
+        return result;
+    }
+
+    /**
+     * Coalesces the overlapping intervals of a sorted list in one pass. The
+     * result is the same than inserting them one by one.
+     */
+    private static List<Interval> coalesce(List<Interval> sorted) {
+        List<Interval> result = new ArrayList<>();
+        Interval current = null;
+
+        for (Interval each : sorted) {
+            if ( current == null ) {
+                current = each;
+            } else if ( current.overlaps(each) ) {
+                current = current.coalesce(each);
+            } else {
+                result.add(current);
+                current = each;
+            }
+        }
+        if ( current != null ) {
+            result.add(current);
+        }
+
+        return result;
+    }
+
     private static IVetoer and(final IVetoer a, final IVetoer b) {
+        if ( a == NO_VETOER ) {
+            return b;
+        }
+        if ( b == NO_VETOER ) {
+            return a;
+        }
+
         return new IVetoer() {
             @Override
             public boolean isValid(LocalDate date) {
@@ -565,32 +606,18 @@ public class AvailabilityTimeLine {
     }
 
     public AvailabilityTimeLine or(AvailabilityTimeLine another) {
-        List<Interval> intersections = doIntersections(this, another);
         AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
-
-        for (Interval each : intersections) {
-            boolean fromStartOfTime = each.getStart().equals(StartOfTime.create());
-            boolean untilEndOfTime = each.getEnd().equals(EndOfTime.create());
-
-            if ( fromStartOfTime && untilEndOfTime ) {
-                result.allInvalid();
-
-            } else if ( fromStartOfTime ) {
-                result.invalidUntil(FixedPoint.tryExtract(each.getEnd()));
-
-            } else if ( untilEndOfTime ) {
-                result.invalidFrom(FixedPoint.tryExtract(each.getStart()));
-
-            } else {
-                result.invalidAt(FixedPoint.tryExtract(each.getStart()), FixedPoint.tryExtract(each.getEnd()));
-            }
-        }
+        result.invalids = coalesce(doIntersections(this.invalids, another.invalids));
         result.setVetoer(or(this.vetoer, another.vetoer));
 
         return result;
     }
 
     private static IVetoer or(final IVetoer a, final IVetoer b) {
+        if ( a == NO_VETOER || b == NO_VETOER ) {
+            return NO_VETOER;
+        }
+
         return new IVetoer() {
             @Override
             public boolean isValid(LocalDate date) {
@@ -599,21 +626,34 @@ public class AvailabilityTimeLine {
         };
     }
 
-    private static List<Interval> doIntersections(AvailabilityTimeLine one, AvailabilityTimeLine another) {
+    /**
+     * Both lists are sorted and its intervals don't overlap, so they are
+     * traversed once advancing the one whose current interval ends first.
+     */
+    private static List<Interval> doIntersections(List<Interval> one, List<Interval> another) {
         List<Interval> result = new ArrayList<>();
-        for (Interval each : one.invalids) {
-            result.addAll(another.intersectWithAdjacent(each));
+        int i = 0;
+        int j = 0;
+
+        while (i < one.size() && j < another.size()) {
+            Interval a = one.get(i);
+            Interval b = another.get(j);
+            if ( a.overlaps(b) ) {
+                result.add(a.intersect(b));
+            }
+
+            int endsComparison = a.getEnd().compareTo(b.getEnd());
+            if ( endsComparison <= 0 ) {
+                i++;
+            }
+            if ( endsComparison >= 0 ) {
+                j++;
+            }
         }
 
         return result;
     }
 
-    private void inserting(AvailabilityTimeLine result, List<Interval> invalid) {
-        for (Interval each : invalid) {
-            result.insert(each);
-        }
-    }
-
     public List<Interval> getValidPeriods() {
         List<Interval> result = new ArrayList<>();
         DatePoint previous = StartOfTime.create();
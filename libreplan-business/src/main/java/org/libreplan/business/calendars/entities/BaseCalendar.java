@@ -219,13 +219,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     private boolean isExceptionDayAlreadyInExceptions(CalendarException exceptionDay) {
-        for (CalendarException day : exceptions) {
-            if (day.getDate().equals(exceptionDay.getDate())) {
-                return true;
-            }
-        }
-
-        return false;
+        return getOwnExceptionDay(exceptionDay.getDate()) != null;
     }
 
     public void addExceptionDay(CalendarException day) {
@@ -267,14 +261,22 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         return null;
     }
 
+    /**
+     * Returns the same exception day than searching <code>date</code> in
+     * {@link #getExceptions(LocalDate)}, but without building the set of all
+     * the exceptions of the calendar and its parents. This is called for each
+     * day when calculating capacities.
+     */
     public CalendarException getExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : getExceptions(date)) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
-            }
+        CalendarException result = getOwnExceptionDay(date);
+        BaseCalendar parent = getParent(date);
+
+        while (result == null && parent != null) {
+            result = parent.getOwnExceptionDay(date);
+            parent = parent.getParent();
         }
 
-        return null;
+        return result;
     }
 
     @Override
@@ -26,7 +26,7 @@ import org.apache.commons.lang3.BooleanUtils;
 /**
  * This is a singleton that contains the compilation options passed from Maven.
  *
- * Currently we have four options:
+ * Currently we have five options:
  * <ul>
  *     <li>Enable/Disable the warning changing default password</li>
  *     <li>
@@ -35,6 +35,7 @@ import org.apache.commons.lang3.BooleanUtils;
  *     </li>
  *     <li>Enable/Disable E-mail sending functionality</li>
  *     <li>Enable/Disable "Delete all projects" button</li>
+ *     <li>Single node deployment or several nodes working as a cluster</li>
  * </ul>
  *
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -54,6 +55,8 @@ public class Configuration {
 
     private boolean deleteAllProjectsButtonDisabled;
 
+    private boolean singleNodeDeployment;
+
     private Configuration() {
     }
 
@@ -107,4 +110,20 @@ public class Configuration {
     public void setDeleteAllProjectsButtonDisabled(boolean deleteAllProjectsButtonDisabled) {
         this.deleteAllProjectsButtonDisabled = deleteAllProjectsButtonDisabled;
     }
+
+    /**
+     * If <code>true</code> there is only one LibrePlan node using the
+     * database, so what is kept in its memory sees every change.
+     */
+    public static boolean isSingleNodeDeployment() {
+        return singleton.getSingleNodeDeployment();
+    }
+
+    public boolean getSingleNodeDeployment() {
+        return singleNodeDeployment;
+    }
+
+    public void setSingleNodeDeployment(boolean singleNodeDeployment) {
+        this.singleNodeDeployment = singleNodeDeployment;
+    }
 }
@@ -68,4 +68,13 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
      */
     public List<E> findAll();
 
+    /**
+     * It returns at most <code>maxResults</code> entities whose code is
+     * greater than <code>code</code>, ordered by ascending code. If
+     * <code>code</code> is <code>null</code>, it starts from the first one.
+     * This allows to traverse all entities page by page without loading all
+     * of them at once.
+     */
+    public List<E> findAfterCode(String code, int maxResults);
+
 }
@@ -24,6 +24,7 @@ package org.libreplan.business.common.daos;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.IntegrationEntity;
@@ -100,4 +101,14 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         return getSession().createCriteria(getEntityClass()).addOrder(Order.asc("code")).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(getEntityClass());
+        if (code != null) {
+            criteria.add(Restrictions.gt("code", code));
+        }
+        return criteria.addOrder(Order.asc("code")).setMaxResults(maxResults).list();
+    }
+
 }
@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.hibernate.Criteria;
+import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.expensesheet.entities.ExpenseSheetLine;
@@ -68,13 +69,20 @@ public class ExpenseSheetLineDAO extends IntegrationEntityDAO<ExpenseSheetLine>
     @SuppressWarnings("unchecked")
     @Transactional(readOnly = true)
     public List<ExpenseSheetLine> findByOrderAndItsChildren(OrderElement orderElement) {
-        // Create collection with current orderElement and all its children
-        Collection<OrderElement> orderElements = orderElement.getAllChildren();
-        orderElements.add(orderElement);
-
         // Prepare criteria
         final Criteria criteria = getSession().createCriteria(ExpenseSheetLine.class);
-        criteria.add(Restrictions.in("orderElement", orderElements));
+
+        String treePath = orderElement.getTreePath();
+        if (treePath == null) {
+            // Create collection with current orderElement and all its children
+            Collection<OrderElement> orderElements = orderElement.getAllChildren();
+            orderElements.add(orderElement);
+            criteria.add(Restrictions.in("orderElement", orderElements));
+        } else {
+            // The tree path of the children starts with the one of the element
+            criteria.createAlias("orderElement", "element");
+            criteria.add(Restrictions.like("element.treePath", treePath, MatchMode.START));
+        }
         return criteria.list();
     }
 
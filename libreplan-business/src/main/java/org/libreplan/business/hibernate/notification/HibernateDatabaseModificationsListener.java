@@ -22,8 +22,12 @@ package org.libreplan.business.hibernate.notification;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -39,9 +43,11 @@ import javax.transaction.Synchronization;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Hibernate;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.event.spi.AbstractEvent;
 import org.hibernate.event.spi.EventType;
 import org.hibernate.event.spi.PostDeleteEvent;
@@ -53,6 +59,19 @@ import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.proxy.HibernateProxy;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
+import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
+import org.libreplan.business.common.Configuration;
+import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChangesJournal.Change;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChangesJournal.ChangeType;
+import org.libreplan.business.materials.entities.MaterialAssignment;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.InfoComponentWithCode;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.requirements.entities.CriterionRequirement;
+import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -64,7 +83,8 @@ public class HibernateDatabaseModificationsListener implements
         PostInsertEventListener,
         PostUpdateEventListener,
         PostDeleteEventListener,
-        ISnapshotRefresherService {
+        ISnapshotRefresherService,
+        IIntegrationEntityChangesRegistry {
 
     private static final Log LOG = LogFactory.getLog(HibernateDatabaseModificationsListener.class);
 
@@ -74,6 +94,35 @@ public class HibernateDatabaseModificationsListener implements
 
     private ConcurrentMap<Transaction, Dispatcher> pending = new ConcurrentHashMap<>();
 
+    /**
+     * Number of changes on integration entities remembered
+     */
+    private static final int INTEGRATION_ENTITY_CHANGES_KEPT = 100000;
+
+    private final IntegrationEntityChangesJournal integrationEntityChanges =
+            new IntegrationEntityChangesJournal(INTEGRATION_ENTITY_CHANGES_KEPT);
+
+    /**
+     * Properties pointing to the entity a part of an integration entity
+     * belongs to. The changes on the parts are recorded as modifications of
+     * the root they belong to, e.g. the {@link org.libreplan.business.orders.entities.Order}
+     * of an {@link OrderElement} or the
+     * {@link org.libreplan.business.workreports.entities.WorkReport} of a
+     * {@link WorkReportLine}.
+     */
+    private static final Map<Class<?>, String[]> OWNER_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        OWNER_PROPERTIES.put(OrderElement.class, new String[] { "parent" });
+        OWNER_PROPERTIES.put(HoursGroup.class, new String[] { "parentOrderLine" });
+        OWNER_PROPERTIES.put(DirectAdvanceAssignment.class, new String[] { "orderElement" });
+        OWNER_PROPERTIES.put(IndirectAdvanceAssignment.class, new String[] { "orderElement" });
+        OWNER_PROPERTIES.put(AdvanceMeasurement.class, new String[] { "advanceAssignment" });
+        OWNER_PROPERTIES.put(MaterialAssignment.class, new String[] { "orderElement" });
+        OWNER_PROPERTIES.put(CriterionRequirement.class, new String[] { "orderElement", "hoursGroup" });
+        OWNER_PROPERTIES.put(WorkReportLine.class, new String[] { "workReport" });
+    }
+
     private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(Class<?> entityClass) {
         List<Class<?>> list = new ArrayList<>(1);
         list.add(entityClass);
@@ -97,15 +146,20 @@ public class HibernateDatabaseModificationsListener implements
     private final class Dispatcher implements Synchronization {
 
         private BlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
+        private BlockingQueue<Change> ownerChanges = new LinkedBlockingQueue<>();
+        private BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
         private final Transaction transaction;
 
-        public Dispatcher(Transaction transaction, Class<?> entityClass) {
-            classes.offer(entityClass);
+        public Dispatcher(Transaction transaction, Class<?> entityClass, IntegrationEntityChange change) {
             this.transaction = transaction;
+            add(entityClass, change);
         }
 
-        public void add(Class<?> entityClass) {
+        public void add(Class<?> entityClass, IntegrationEntityChange change) {
             classes.offer(entityClass);
+            if ( change != null ) {
+                (change.onOwner ? ownerChanges : changes).addAll(change.changes);
+            }
         }
 
         @Override
@@ -127,6 +181,13 @@ public class HibernateDatabaseModificationsListener implements
                         "dispatching " + toDispatch + " snapshots to reload due to transaction successful completion");
 
                 dispatch(toDispatch);
+
+                // the changes done on the roots themselves go last so they
+                // win, e.g. the removal of an order over the removal of its lines
+                List<Change> committedChanges = new ArrayList<>();
+                ownerChanges.drainTo(committedChanges);
+                changes.drainTo(committedChanges);
+                integrationEntityChanges.record(committedChanges);
             }
         }
 
@@ -164,17 +225,149 @@ public class HibernateDatabaseModificationsListener implements
 
     @Override
     public void onPostDelete(PostDeleteEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Object entity = getEntityObject(event);
+        modificationOn(inferTransaction(event), inferEntityClass(entity), integrationEntityChange(
+                event.getSession(), event.getPersister(), entity, event.getDeletedState(), null,
+                ChangeType.REMOVED));
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Object entity = getEntityObject(event);
+        modificationOn(inferTransaction(event), inferEntityClass(entity), integrationEntityChange(
+                event.getSession(), event.getPersister(), entity, event.getState(), event.getOldState(),
+                ChangeType.MODIFIED));
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Object entity = getEntityObject(event);
+        modificationOn(inferTransaction(event), inferEntityClass(entity), integrationEntityChange(
+                event.getSession(), event.getPersister(), entity, event.getState(), null,
+                ChangeType.MODIFIED));
+    }
+
+    /**
+     * The changes to record on the journal due to a change on an entity. If
+     * the entity is part of another one, the root it belongs to is the one
+     * modified.
+     */
+    static class IntegrationEntityChange {
+
+        private final boolean onOwner;
+
+        private final List<Change> changes;
+
+        private IntegrationEntityChange(boolean onOwner, List<Change> changes) {
+            this.onOwner = onOwner;
+            this.changes = changes;
+        }
+
+        private static IntegrationEntityChange of(boolean onOwner, Change... changes) {
+            List<Change> list = new ArrayList<>();
+            Collections.addAll(list, changes);
+
+            return new IntegrationEntityChange(onOwner, list);
+        }
+
+    }
+
+    private static IntegrationEntityChange integrationEntityChange(SessionImplementor session,
+                                                                   EntityPersister persister,
+                                                                   Object entity,
+                                                                   Object[] state,
+                                                                   Object[] oldState,
+                                                                   ChangeType changeType) {
+
+        Object owner = ownerOf(persister, entity, state);
+        if ( owner == null ) {
+            return rootChange(persister, entity, oldState, changeType);
+        }
+
+        while (owner != null) {
+            if ( !Hibernate.isInitialized(owner) ) {
+                return IntegrationEntityChange.of(true, Change.unknown(inferEntityClass(owner)));
+            }
+            Object current = unproxy(owner);
+            owner = ownerOf(session.getEntityPersister(null, current), current, null);
+            entity = current;
+        }
+        String code = codeOf(entity);
+
+        return code != null
+                ? IntegrationEntityChange.of(true, new Change(entity.getClass(), code, ChangeType.MODIFIED))
+                : null;
+    }
+
+    private static IntegrationEntityChange rootChange(EntityPersister persister,
+                                                      Object entity,
+                                                      Object[] oldState,
+                                                      ChangeType changeType) {
+
+        String code = codeOf(entity);
+        if ( code == null ) {
+            return null;
+        }
+        Class<?> entityClass = inferEntityClass(entity);
+        Change change = new Change(entityClass, code, changeType);
+        String oldCode = oldState != null ? codeIn(persister, oldState) : null;
+        if ( oldCode != null && !oldCode.equals(code) ) {
+            // a rename is seen as the removal of the old code
+            return IntegrationEntityChange.of(false, new Change(entityClass, oldCode, ChangeType.REMOVED), change);
+        }
+
+        return IntegrationEntityChange.of(false, change);
+    }
+
+    /**
+     * The entity <code>entity</code> belongs to or <code>null</code> if it's a
+     * root. The values of <code>state</code> are used if provided, so the
+     * owner of a removed entity is the one it had when loaded.
+     */
+    private static Object ownerOf(EntityPersister persister, Object entity, Object[] state) {
+        for (Entry<Class<?>, String[]> each : OWNER_PROPERTIES.entrySet()) {
+            if ( !each.getKey().isAssignableFrom(persister.getMappedClass()) ) {
+                continue;
+            }
+            for (String property : each.getValue()) {
+                Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull(property);
+                if ( index == null ) {
+                    continue;
+                }
+                Object result = state != null ? state[index] : persister.getPropertyValue(entity, index);
+                if ( result != null ) {
+                    return result;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static String codeOf(Object entity) {
+        return entity instanceof IntegrationEntity ? ((IntegrationEntity) entity).getCode() : null;
+    }
+
+    private static String codeIn(EntityPersister persister, Object[] state) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if ( "code".equals(names[i]) && state[i] instanceof String ) {
+                return (String) state[i];
+            }
+            if ( state[i] instanceof InfoComponentWithCode ) {
+                return ((InfoComponentWithCode) state[i]).getCode();
+            }
+        }
+
+        return null;
+    }
+
+    private static Object unproxy(Object entity) {
+        if ( entity instanceof HibernateProxy ) {
+            return ((HibernateProxy) entity).getHibernateLazyInitializer().getImplementation();
+        }
+
+        return entity;
     }
 
 
@@ -204,19 +397,22 @@ public class HibernateDatabaseModificationsListener implements
         return entity.getClass();
     }
 
-    void modificationOn(Transaction transaction, Class<?> entityClass) {
+    void modificationOn(Transaction transaction, Class<?> entityClass, IntegrationEntityChange change) {
         if ( transaction == null ) {
             dispatch(snapshotsInterestedOn(entityClass));
+            if ( change != null ) {
+                integrationEntityChanges.record(change.changes);
+            }
 
             return;
         }
-        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass);
+        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass, change);
         Dispatcher previous;
         previous = pending.putIfAbsent(transaction, newDispatcher);
 
         boolean dispatcherAlreadyExisted = previous != null;
         if ( dispatcherAlreadyExisted ) {
-            previous.add(entityClass);
+            previous.add(entityClass, change);
         } else {
             transaction.registerSynchronization(newDispatcher);
         }
@@ -251,6 +447,17 @@ public class HibernateDatabaseModificationsListener implements
         return result;
     }
 
+    @Override
+    public IntegrationEntityChanges changesSince(Class<? extends IntegrationEntity> type, String token) {
+        IntegrationEntityChanges result = integrationEntityChanges.changesSince(type, token);
+        if ( !Configuration.isSingleNodeDeployment() ) {
+            // the changes done by other nodes are not in this journal
+            return IntegrationEntityChanges.incomplete(result.getToken());
+        }
+
+        return result;
+    }
+
     private BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> emptyQueue() {
         return new LinkedBlockingQueue<>();
     }
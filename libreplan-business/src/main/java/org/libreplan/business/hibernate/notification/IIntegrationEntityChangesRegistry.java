@@ -0,0 +1,46 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import org.libreplan.business.common.IntegrationEntity;
+
+/**
+ * It keeps track of the {@link IntegrationEntity} instances created, updated
+ * or removed by committed transactions, so integrated systems can ask only
+ * for what has changed since their last synchronization.
+ */
+public interface IIntegrationEntityChangesRegistry {
+
+    /**
+     * It returns the codes of the entities of type <code>type</code> (or any
+     * subclass of it) that have changed after the moment represented by
+     * <code>token</code>. The returned {@link IntegrationEntityChanges}
+     * contains the token to use in the next call.
+     *
+     * If <code>token</code> is <code>null</code>, unknown or too old, the
+     * result is not complete and all the entities must be retrieved again.
+     * It is never complete either if the deployment is not configured as
+     * single node, see {@link org.libreplan.business.common.Configuration#isSingleNodeDeployment()}.
+     */
+    IntegrationEntityChanges changesSince(
+            Class<? extends IntegrationEntity> type, String token);
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Codes of the entities modified or removed since some token, as returned by
+ * {@link IIntegrationEntityChangesRegistry}.
+ */
+public class IntegrationEntityChanges {
+
+    static IntegrationEntityChanges incomplete(String token) {
+        return new IntegrationEntityChanges(token, false,
+                Collections.<String> emptySet(),
+                Collections.<String> emptySet());
+    }
+
+    private final String token;
+
+    private final boolean complete;
+
+    private final Set<String> modifiedCodes;
+
+    private final Set<String> removedCodes;
+
+    IntegrationEntityChanges(String token, boolean complete,
+            Set<String> modifiedCodes, Set<String> removedCodes) {
+        this.token = token;
+        this.complete = complete;
+        this.modifiedCodes = Collections.unmodifiableSet(modifiedCodes);
+        this.removedCodes = Collections.unmodifiableSet(removedCodes);
+    }
+
+    /**
+     * The token to ask for the changes after these ones
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * If <code>false</code> the changes since the requested token are no
+     * longer known and all the entities must be retrieved again.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Codes of the entities created or updated. They exist at the moment of
+     * the last change.
+     */
+    public Set<String> getModifiedCodes() {
+        return modifiedCodes;
+    }
+
+    /**
+     * Codes of the entities removed. They don't exist at the moment of the
+     * last change.
+     */
+    public Set<String> getRemovedCodes() {
+        return removedCodes;
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * In memory journal of the last changes done to integration entities. Each
+ * change receives a sequence number bigger than the previous ones. The tokens
+ * handed out include the instant the journal was created, so tokens from a
+ * previous execution of the application are detected as unknown.
+ *
+ * Only the last <code>capacity</code> changes are kept. Asking for changes
+ * older than that gives an incomplete result.
+ *
+ * The journal only lives in the memory of this node. After a restart every
+ * token is unknown, and changes done by other nodes of a cluster are never
+ * seen, so its results are only trusted in single node deployments.
+ */
+public class IntegrationEntityChangesJournal {
+
+    public enum ChangeType {
+        MODIFIED, REMOVED,
+
+        /**
+         * Some entity of the class changed but which one is not known, so
+         * any result for that class after it is not complete
+         */
+        UNKNOWN;
+    }
+
+    public static class Change {
+
+        private final Class<?> entityClass;
+
+        private final String code;
+
+        private final ChangeType type;
+
+        public Change(Class<?> entityClass, String code, ChangeType type) {
+            Validate.notNull(entityClass);
+            Validate.notNull(type);
+            Validate.isTrue(code != null || type == ChangeType.UNKNOWN);
+            this.entityClass = entityClass;
+            this.code = code;
+            this.type = type;
+        }
+
+        public static Change unknown(Class<?> entityClass) {
+            return new Change(entityClass, null, ChangeType.UNKNOWN);
+        }
+
+        private boolean isRelatedTo(Class<?> type) {
+            return type.isAssignableFrom(entityClass)
+                    || (this.type == ChangeType.UNKNOWN && entityClass
+                            .isAssignableFrom(type));
+        }
+
+    }
+
+    private static class Entry {
+
+        private final long sequence;
+
+        private final Change change;
+
+        private Entry(long sequence, Change change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+
+    }
+
+    private static final String SEPARATOR = "-";
+
+    private final String epoch;
+
+    private final int capacity;
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    /**
+     * Sequence of the last change recorded
+     */
+    private long lastSequence = 0;
+
+    /**
+     * Sequence of the last change discarded due to lack of capacity
+     */
+    private long lastDiscarded = 0;
+
+    public IntegrationEntityChangesJournal(int capacity) {
+        Validate.isTrue(capacity > 0);
+        this.epoch = Long.toString(System.currentTimeMillis());
+        this.capacity = capacity;
+    }
+
+    public synchronized void record(Collection<? extends Change> changes) {
+        for (Change each : changes) {
+            if (entries.size() == capacity) {
+                lastDiscarded = entries.removeFirst().sequence;
+            }
+            entries.addLast(new Entry(++lastSequence, each));
+        }
+    }
+
+    public synchronized IntegrationEntityChanges changesSince(Class<?> type,
+            String token) {
+        String currentToken = epoch + SEPARATOR + lastSequence;
+        Long since = parseSequence(token);
+        if (since == null || since < lastDiscarded || since > lastSequence) {
+            return IntegrationEntityChanges.incomplete(currentToken);
+        }
+
+        Set<String> modified = new LinkedHashSet<>();
+        Set<String> removed = new LinkedHashSet<>();
+        Iterator<Entry> iterator = entries.descendingIterator();
+        while (iterator.hasNext()) {
+            Entry each = iterator.next();
+            if (each.sequence <= since) {
+                break;
+            }
+            Change change = each.change;
+            if (!change.isRelatedTo(type)) {
+                continue;
+            }
+            if (change.type == ChangeType.UNKNOWN) {
+                return IntegrationEntityChanges.incomplete(currentToken);
+            }
+            if (modified.contains(change.code)
+                    || removed.contains(change.code)) {
+                continue;
+            }
+            // iterating from the newest so the last change of each code wins
+            if (change.type == ChangeType.MODIFIED) {
+                modified.add(change.code);
+            } else {
+                removed.add(change.code);
+            }
+        }
+
+        return new IntegrationEntityChanges(currentToken, true, modified,
+                removed);
+    }
+
+    private Long parseSequence(String token) {
+        if (token == null || !token.startsWith(epoch + SEPARATOR)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(token.substring(epoch.length()
+                    + SEPARATOR.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -46,6 +46,8 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     private final ExecutionsReport executionsReport;
 
+    private final AtomicReference<Reload> lastReload = new AtomicReference<Reload>();
+
     private abstract class State {
         abstract T getValue();
 
@@ -106,6 +108,14 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             this.ongoingCalculation = ongoingCalculation;
         }
 
+        @Override
+        State nextState(Future<T> future) {
+            // once finished the previous values are no longer needed
+            State previous = ongoingCalculation.isDone() ? new NoOngoingCalculation(
+                    getValue()) : this;
+            return new PreviousValueAndOngoingCalculation(previous, future);
+        }
+
         @Override
         T getValue() {
             if (!ongoingCalculation.isCancelled()
@@ -181,19 +191,53 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
+    /**
+     * Launches a new calculation, unless there is already one that has not
+     * started yet, since it will see the changes done until now. The ongoing
+     * calculation is not cancelled, its value is used until the new one
+     * finishes.
+     */
     public void reloadNeeded(ExecutorService executorService) {
-        Future<T> future = executorService
-                .submit(callableDecoratedWithStatistics());
-        State previousState;
-        State newState = null;
+        Reload reload = new Reload();
+        Reload previousReload;
         do {
-            if (newState != null) {
-                newState.cancel();
+            previousReload = lastReload.get();
+            if (previousReload != null && previousReload.isWaiting()) {
+                LOG.debug(name + " a reload is already waiting to start");
+                return;
             }
+        } while (!lastReload.compareAndSet(previousReload, reload));
+
+        Future<T> future;
+        try {
+            future = executorService.submit(reload);
+        } catch (RuntimeException e) {
+            lastReload.compareAndSet(reload, null);
+            throw e;
+        }
+        State previousState;
+        State newState;
+        do {
             previousState = currentState.get();
             newState = previousState.nextState(future);
         } while (!currentState.compareAndSet(previousState, newState));
-        previousState.cancel();
+    }
+
+    private class Reload implements Callable<T> {
+
+        private final Callable<T> calculation = callableDecoratedWithStatistics();
+
+        private volatile boolean started = false;
+
+        boolean isWaiting() {
+            return !started;
+        }
+
+        @Override
+        public T call() throws Exception {
+            started = true;
+            return calculation.call();
+        }
     }
 
     public void ensureFirstLoad(ExecutorService executorService) {
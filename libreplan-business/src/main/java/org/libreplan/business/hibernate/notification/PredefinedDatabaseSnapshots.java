@@ -22,6 +22,7 @@ package org.libreplan.business.hibernate.notification;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -48,7 +49,12 @@ import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.daos.OrderElementSearchEntry;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
@@ -71,6 +77,8 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.util.TextSearchIndex;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -121,6 +129,9 @@ public class PredefinedDatabaseSnapshots {
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
     @Autowired
     private IDayAssignmentDAO dayAssignmentDAO;
 
@@ -162,6 +173,10 @@ public class PredefinedDatabaseSnapshots {
 
     private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>> advanceCostPerTask;
 
+    private IAutoUpdatedSnapshot<TextSearchIndex<OrderElementSearchEntry>> orderElementsSearchIndex;
+
+    private IAutoUpdatedSnapshot<TextSearchIndex<Resource>> resourcesSearchIndex;
+
     private boolean snapshotsRegistered = false;
 
     public SortedMap<CriterionType, List<Criterion>> snapshotCriterionsMap() {
@@ -216,6 +231,14 @@ public class PredefinedDatabaseSnapshots {
         return advanceCostPerTask.getValue();
     }
 
+    public TextSearchIndex<OrderElementSearchEntry> snapshotOrderElementsSearchIndex() {
+        return orderElementsSearchIndex.getValue();
+    }
+
+    public TextSearchIndex<Resource> snapshotResourcesSearchIndex() {
+        return resourcesSearchIndex.getValue();
+    }
+
     public void registerSnapshots() {
         if ( snapshotsRegistered ) {
             LOG.warn("snapshots have already been registered");
@@ -269,6 +292,22 @@ public class PredefinedDatabaseSnapshots {
                 Task.class,
                 TaskGroup.class,
                 DirectAdvanceAssignment.class);
+
+        orderElementsSearchIndex = snapshot(
+                "order elements search index",
+                calculateOrderElementsSearchIndex(),
+                OrderElement.class,
+                OrderLine.class,
+                OrderLineGroup.class,
+                Order.class);
+
+        resourcesSearchIndex = snapshot(
+                "resources search index",
+                calculateResourcesSearchIndex(),
+                Resource.class,
+                Worker.class,
+                Machine.class,
+                VirtualWorker.class);
     }
 
     private <T> IAutoUpdatedSnapshot<T> snapshot(String name, Callable<T> callable, Class<?>... reloadOnChangesOf) {
@@ -362,10 +401,19 @@ public class PredefinedDatabaseSnapshots {
 
     private Callable<ResourceLoadChartData> calculateResourceLoadChartData() {
         return () -> {
-            List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(scenarioManager.getCurrent(), null, null);
             List<Resource> resources = resourceDAO.list(Resource.class);
-            return new ResourceLoadChartData(dayAssignments, resources);
+            Map<Long, Resource> resourcesById = new HashMap<>();
+            for (Resource each : resources) {
+                resourcesById.put(each.getId(), each);
+            }
+
+            SortedMap<LocalDate, Map<Resource, EffortDuration>> effortByDayAndResource = new TreeMap<>();
+            dayAssignmentDAO.visitEffortFor(scenarioManager.getCurrent(), null, null, (resourceId, day, effort) ->
+                    effortByDayAndResource
+                            .computeIfAbsent(day, key -> new HashMap<>())
+                            .merge(resourcesById.get(resourceId), effort, EffortDuration::plus));
 
+            return new ResourceLoadChartData(effortByDayAndResource, resources);
         };
     }
 
@@ -373,6 +421,15 @@ public class PredefinedDatabaseSnapshots {
         return () -> workReportLineDAO.list(WorkReportLine.class);
     }
 
+    private Callable<TextSearchIndex<OrderElementSearchEntry>> calculateOrderElementsSearchIndex() {
+        return () -> TextSearchIndex.create(orderElementDAO.getSearchEntries(), OrderElementSearchEntry::getTexts);
+    }
+
+    private Callable<TextSearchIndex<Resource>> calculateResourcesSearchIndex() {
+        return () -> TextSearchIndex.create(resourceDAO.findAll(),
+                resource -> Collections.singletonList(resource.getShortDescription()));
+    }
+
 
 
     private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateEstimatedCostPerTask() {
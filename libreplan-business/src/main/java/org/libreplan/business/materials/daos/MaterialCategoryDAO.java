@@ -24,6 +24,7 @@ package org.libreplan.business.materials.daos;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
@@ -104,4 +105,18 @@ public class MaterialCategoryDAO extends IntegrationEntityDAO<MaterialCategory>
                 Restrictions.isNull("parent")).addOrder(Order.asc("code"))
                 .list();
     }
+
+    /**
+     * Like {@link #findAll()}, only the root categories are returned, the
+     * subcategories are included in them.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<MaterialCategory> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(MaterialCategory.class).add(Restrictions.isNull("parent"));
+        if (code != null) {
+            criteria.add(Restrictions.gt("code", code));
+        }
+        return criteria.addOrder(Order.asc("code")).setMaxResults(maxResults).list();
+    }
 }
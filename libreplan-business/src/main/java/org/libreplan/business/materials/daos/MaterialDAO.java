@@ -21,10 +21,14 @@
 
 package org.libreplan.business.materials.daos;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.Criteria;
@@ -71,10 +75,50 @@ public class MaterialDAO extends IntegrationEntityDAO<Material> implements
         return findMaterialsInCategories(text, materialCategories);
     }
 
+    /**
+     * The subcategories of a saved category are found from the ids of all the
+     * categories and their parents, retrieved with a single query, instead of
+     * loading the subcategories of each category of the tree.
+     */
     @Override
     public Set<MaterialCategory> getAllSubcategories(MaterialCategory materialCategory) {
         Set<MaterialCategory> result = new HashSet<MaterialCategory>();
-        getAllSubcategories(result, materialCategory.getSubcategories());
+        if (materialCategory.isNewObject()) {
+            getAllSubcategories(result, materialCategory.getSubcategories());
+            return result;
+        }
+
+        Map<Long, List<Long>> childrenIdsByParentId = getChildrenIdsByParentId();
+        Deque<Long> pending = new ArrayDeque<Long>();
+        pending.push(materialCategory.getId());
+        while (!pending.isEmpty()) {
+            List<Long> childrenIds = childrenIdsByParentId.get(pending.pop());
+            if (childrenIds != null) {
+                for (Long each : childrenIds) {
+                    result.add(getSession().load(MaterialCategory.class, each));
+                    pending.push(each);
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<Long>> getChildrenIdsByParentId() {
+        List<Object[]> rows = getSession()
+                .createQuery("SELECT category.id, category.parent.id "
+                        + "FROM MaterialCategory category "
+                        + "WHERE category.parent IS NOT NULL")
+                .list();
+
+        Map<Long, List<Long>> result = new HashMap<Long, List<Long>>();
+        for (Object[] row : rows) {
+            Long parentId = (Long) row[1];
+            if (!result.containsKey(parentId)) {
+                result.put(parentId, new ArrayList<Long>());
+            }
+            result.get(parentId).add((Long) row[0]);
+        }
         return result;
     }
 
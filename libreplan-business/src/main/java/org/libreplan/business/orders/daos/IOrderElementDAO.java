@@ -28,9 +28,11 @@ import java.util.Set;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.labels.entities.Label;
+import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
+import org.libreplan.business.templates.entities.TemplateHistoricalStatistics;
 import org.libreplan.business.workingday.EffortDuration;
 
 /**
@@ -89,21 +91,26 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
 
     List<OrderElement> getAll();
 
+    /**
+     * The codes and names of every {@link OrderElement} and of its
+     * {@link Order}. They're taken with one query, the order of each element
+     * is found from its stored tree path, without loading the elements and
+     * their parents.
+     */
+    List<OrderElementSearchEntry> getSearchEntries();
+
     public List<OrderElement> findOrderElementsWithExternalCode();
 
     List<OrderElement> findByTemplate(OrderElementTemplate template);
 
-    BigDecimal calculateAverageEstimatedHours(final List<OrderElement> list);
-
-    EffortDuration calculateAverageWorkedHours(final List<OrderElement> list);
-
-    BigDecimal calculateMaxEstimatedHours(final List<OrderElement> list);
-
-    BigDecimal calculateMinEstimatedHours(final List<OrderElement> list);
-
-    EffortDuration calculateMaxWorkedHours(final List<OrderElement> list);
-
-    EffortDuration calculateMinWorkedHours(final List<OrderElement> list);
+    /**
+     * Calculates the historical statistics of the {@link OrderElement
+     * OrderElements} created from a template in a single pass.
+     *
+     * @param list
+     *            must be attached
+     */
+    TemplateHistoricalStatistics calculateHistoricalStatistics(final List<OrderElement> list);
 
     boolean isAlreadyInUse(OrderElement orderElement);
 
@@ -138,4 +145,11 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
     boolean existsByCodeInAnotherOrderAnotherTransaction(
             OrderElement orderElement);
 
+    /**
+     * Returns the codes of the elements of <code>order</code> that are
+     * already used by elements of other orders, checking all of them with a
+     * query by chunk of codes instead of one by element.
+     */
+    Set<String> findCodesUsedInAnotherOrderAnotherTransaction(Order order);
+
 }
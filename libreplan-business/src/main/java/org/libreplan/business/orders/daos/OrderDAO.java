@@ -519,6 +519,19 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
                 .list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Order> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(getEntityClass());
+        if (code != null) {
+            criteria.add(Restrictions.gt("infoComponent.code", code));
+        }
+        return criteria
+                .addOrder(org.hibernate.criterion.Order.asc("infoComponent.code"))
+                .setMaxResults(maxResults)
+                .list();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
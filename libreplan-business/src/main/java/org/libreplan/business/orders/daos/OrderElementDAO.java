@@ -22,7 +22,6 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,6 +49,7 @@ import org.libreplan.business.planner.daos.ITaskSourceDAO;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
+import org.libreplan.business.templates.entities.TemplateHistoricalStatistics;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
@@ -74,6 +74,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implements IOrderElementDAO {
 
+    private static final int CODES_BY_QUERY = 1000;
+
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
@@ -206,6 +208,19 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
                 .list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<OrderElement> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(getEntityClass());
+        if (code != null) {
+            criteria.add(Restrictions.gt("infoComponent.code", code));
+        }
+        return criteria
+                .addOrder(org.hibernate.criterion.Order.asc("infoComponent.code"))
+                .setMaxResults(maxResults)
+                .list();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
@@ -260,6 +275,38 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return list(OrderElement.class);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OrderElementSearchEntry> getSearchEntries() {
+        List<Object[]> rows = getSession()
+                .createQuery("SELECT e.id, e.infoComponent.code, e.infoComponent.name, e.treePath FROM OrderElement e")
+                .list();
+
+        Map<Long, Object[]> ordersById = new HashMap<>();
+        for (Object[] row : rows) {
+            if ( row[0].equals(orderIdOf(row)) ) {
+                ordersById.put((Long) row[0], row);
+            }
+        }
+
+        List<OrderElementSearchEntry> result = new ArrayList<>();
+        for (Object[] row : rows) {
+            Object[] order = ordersById.get(orderIdOf(row));
+            result.add(new OrderElementSearchEntry((Long) row[0], (String) row[1], (String) row[2],
+                    order != null ? (String) order[1] : "", order != null ? (String) order[2] : ""));
+        }
+        return result;
+    }
+
+    private static Long orderIdOf(Object[] row) {
+        String treePath = (String) row[3];
+        if ( treePath == null ) {
+            return null;
+        }
+        // The first id of the path, like 12 in /12/40/41/, is the order's
+        return Long.valueOf(treePath.substring(1, treePath.indexOf('/', 1)));
+    }
+
     @Override
     public List<OrderElement> findOrderElementsWithExternalCode() {
         return getSession()
@@ -291,110 +338,57 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
     }
 
     /**
-     * Methods to calculate statistics with the estimated hours and worked hours of a set of order elements.
+     * Calculates the statistics with the estimated hours and worked hours of a
+     * set of {@link OrderElement OrderElements} in a single pass, loading the
+     * effort reported for all the finished ones with one query.
      *
      * @param list
-     *            <{@link OrderElement}>
+     *            <{@link OrderElement}> must be attached
      */
-
-    public BigDecimal calculateAverageEstimatedHours(final List<OrderElement> list) {
-        return average(new BigDecimal(list.size()), sumEstimatedHours(list));
-    }
-
-    public EffortDuration calculateAverageWorkedHours(final List<OrderElement> list) {
-        return list.isEmpty() ? EffortDuration.zero() : EffortDuration.average(sumWorkedHours(list), list.size());
-    }
-
-    private BigDecimal average(BigDecimal divisor, BigDecimal sum) {
-        BigDecimal average = new BigDecimal(0);
-        if ( sum.compareTo(new BigDecimal(0)) > 0 ) {
-            average = sum.divide(divisor, new MathContext(2, RoundingMode.HALF_UP));
-        }
-        return average;
-    }
-
-    private BigDecimal sumEstimatedHours(final List<OrderElement> list) {
-        BigDecimal sum = new BigDecimal(0);
+    @Override
+    public TemplateHistoricalStatistics calculateHistoricalStatistics(final List<OrderElement> list) {
+        Set<OrderElement> finished = new HashSet<>();
         for (OrderElement orderElement : list) {
-            sum = sum.add(new BigDecimal(orderElement.getWorkHours()));
+            if ( orderElement.isFinishedAdvance() ) {
+                finished.add(orderElement);
+            }
         }
-        return sum;
-    }
+        Map<Long, EffortDuration> directEffort = getAssignedDirectEffortById(finished);
 
-    private EffortDuration sumWorkedHours(final List<OrderElement> list) {
-        EffortDuration sum = EffortDuration.zero();
+        TemplateHistoricalStatistics result = TemplateHistoricalStatistics.create();
         for (OrderElement orderElement : list) {
-            sum = sum.plus(getAssignedDirectEffort(orderElement));
-        }
-        return sum;
-    }
-
-    public BigDecimal calculateMaxEstimatedHours(final List<OrderElement> list) {
-        BigDecimal max = new BigDecimal(0);
-        if ( !list.isEmpty() ) {
-            max = new BigDecimal(list.get(0).getWorkHours());
-            for (OrderElement orderElement : list) {
-                BigDecimal value = new BigDecimal(orderElement.getWorkHours());
-                max = getMax(max, value);
+            EffortDuration worked = null;
+            if ( finished.contains(orderElement) ) {
+                worked = directEffort.containsKey(orderElement.getId())
+                        ? directEffort.get(orderElement.getId())
+                        : EffortDuration.zero();
             }
+            result.addApplication(new BigDecimal(orderElement.getWorkHours()), worked);
         }
-        return max;
-    }
-
-    private BigDecimal getMax(BigDecimal valueA, BigDecimal valueB) {
-        if ( valueA.compareTo(valueB) < 0 ) {
-            return valueB;
-        } else if ( valueA.compareTo(valueB) > 0 ) {
-            return valueA;
-        }
-        return valueA;
+        return result;
     }
 
-    private BigDecimal getMin(BigDecimal valueA, BigDecimal valueB) {
-        if ( valueA.compareTo(valueB) > 0 ) {
-            return valueB;
-        } else if ( valueA.compareTo(valueB) < 0 ) {
-            return valueA;
+    private Map<Long, EffortDuration> getAssignedDirectEffortById(Set<OrderElement> orderElements) {
+        Map<Long, EffortDuration> result = new HashMap<>();
+        if ( orderElements.isEmpty() ) {
+            return result;
         }
-        return valueA;
-    }
 
-    public BigDecimal calculateMinEstimatedHours(final List<OrderElement> list) {
-        BigDecimal min = new BigDecimal(0);
-        if ( !list.isEmpty() ) {
-            min = new BigDecimal(list.get(0).getWorkHours());
-            for (OrderElement orderElement : list) {
-                BigDecimal value = new BigDecimal(orderElement.getWorkHours());
-                min = getMin(min, value);
-            }
-        }
-        return min;
-    }
+        String strQuery = "SELECT line.orderElement.id, line.effort "
+                + "FROM WorkReportLine line "
+                + "WHERE line.orderElement IN (:orderElements)";
 
-    @Override
-    public EffortDuration calculateMaxWorkedHours(final List<OrderElement> list) {
-        EffortDuration max = EffortDuration.zero();
-        if ( !list.isEmpty() ) {
-            max = getAssignedDirectEffort(list.get(0));
-            for (OrderElement orderElement : list) {
-                EffortDuration value = getAssignedDirectEffort(orderElement);
-                max = EffortDuration.max(max, value);
-            }
-        }
-        return max;
-    }
+        List<Object[]> rows = getSession()
+                .createQuery(strQuery)
+                .setParameterList("orderElements", orderElements)
+                .list();
 
-    @Override
-    public EffortDuration calculateMinWorkedHours(final List<OrderElement> list) {
-        EffortDuration min = EffortDuration.zero();
-        if ( !list.isEmpty() ) {
-            min = getAssignedDirectEffort(list.get(0));
-            for (OrderElement orderElement : list) {
-                EffortDuration value = getAssignedDirectEffort(orderElement);
-                min = EffortDuration.min(min, value);
-            }
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            EffortDuration effort = (EffortDuration) row[1];
+            result.put(id, result.containsKey(id) ? result.get(id).plus(effort) : effort);
         }
-        return min;
+        return result;
     }
 
     @Override
@@ -574,6 +568,32 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return existsByCodeInAnotherOrder(orderElement);
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public Set<String> findCodesUsedInAnotherOrderAnotherTransaction(Order order) {
+        List<String> codes = new ArrayList<>();
+        for (OrderElement each : getOrderAndAllChildren(order)) {
+            if ( !StringUtils.isBlank(each.getCode()) ) {
+                codes.add(each.getCode());
+            }
+        }
+
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < codes.size(); i += CODES_BY_QUERY) {
+            Query query = getSession().createQuery("FROM OrderElement e WHERE e.infoComponent.code IN (:codes)");
+            query.setParameterList("codes", codes.subList(i, Math.min(i + CODES_BY_QUERY, codes.size())));
+
+            for (Object each : query.list()) {
+                OrderElement orderElementInDB = (OrderElement) each;
+                Order orderInDB = orderElementInDB.getOrder();
+                if ( orderInDB == null || !Objects.equals(order.getId(), orderInDB.getId()) ) {
+                    result.add(orderElementInDB.getCode());
+                }
+            }
+        }
+        return result;
+    }
+
     private boolean existsByCodeInAnotherOrder(OrderElement orderElement) {
         try {
             return !areInTheSameOrder(orderElement, findUniqueByCode(orderElement.getCode()));
@@ -0,0 +1,86 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.daos;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+
+/**
+ * The texts an {@link OrderElement} is searched by, together with its id to
+ * retrieve it once picked. It's a plain row, so keeping all of them in memory
+ * doesn't keep the elements and their trees.
+ */
+public class OrderElementSearchEntry {
+
+    public static OrderElementSearchEntry create(OrderElement orderElement) {
+        Order order = orderElement.getOrder();
+
+        return new OrderElementSearchEntry(orderElement.getId(),
+                orderElement.getCode(), orderElement.getName(),
+                order.getCode(), order.getName());
+    }
+
+    private final Long id;
+
+    private final String code;
+
+    private final String name;
+
+    private final String orderCode;
+
+    private final String orderName;
+
+    public OrderElementSearchEntry(Long id, String code, String name,
+            String orderCode, String orderName) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.orderCode = orderCode;
+        this.orderName = orderName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    public String getOrderName() {
+        return orderName;
+    }
+
+    public List<String> getTexts() {
+        return Arrays.asList(code, name, orderCode, orderName);
+    }
+
+}
@@ -20,7 +20,10 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,12 +34,12 @@ import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
-import org.libreplan.business.expensesheet.daos.IExpenseSheetLineDAO;
 import org.libreplan.business.expensesheet.entities.ExpenseSheetLine;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderLineGroup;
 import org.libreplan.business.orders.entities.SumExpenses;
+import org.libreplan.business.util.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -55,9 +58,6 @@ public class SumExpensesDAO extends GenericDAOHibernate<SumExpenses, Long> imple
     @Autowired
     private SessionFactory sessionFactory;
 
-    @Autowired
-    private IExpenseSheetLineDAO expenseSheetLineDAO;
-
     @Autowired
     private IAdHocTransactionService transactionService;
 
@@ -70,30 +70,71 @@ public class SumExpensesDAO extends GenericDAOHibernate<SumExpenses, Long> imple
     public void updateRelatedSumExpensesWithExpenseSheetLineSet(Set<ExpenseSheetLine> expenseSheetLineSet) {
         resetMapSumExpenses();
 
+        Map<Long, Pair<BigDecimal, OrderElement>> savedValues = findSavedValuesAndTasks(expenseSheetLineSet);
+
         for (ExpenseSheetLine expenseSheetLine : expenseSheetLineSet) {
-            updateRelatedSumExpensesWithAddedOrModifiedExpenseSheetLine(expenseSheetLine);
+            updateRelatedSumExpensesWithAddedOrModifiedExpenseSheetLine(
+                    expenseSheetLine, savedValues.get(expenseSheetLine.getId()));
+        }
+    }
+
+    /**
+     * Reads in another transaction, with just one query, the value and the
+     * task stored in the database for the lines that are not new.
+     */
+    private Map<Long, Pair<BigDecimal, OrderElement>> findSavedValuesAndTasks(
+            Set<ExpenseSheetLine> expenseSheetLineSet) {
+
+        final Map<Long, Long> currentTaskIds = new HashMap<>();
+        for (ExpenseSheetLine expenseSheetLine : expenseSheetLineSet) {
+            if (!expenseSheetLine.isNewObject()) {
+                currentTaskIds.put(expenseSheetLine.getId(), expenseSheetLine.getOrderElement().getId());
+            }
         }
+
+        if (currentTaskIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return transactionService.runOnAnotherTransaction(
+                new IOnTransaction<Map<Long, Pair<BigDecimal, OrderElement>>>() {
+                    @Override
+                    public Map<Long, Pair<BigDecimal, OrderElement>> execute() {
+                        Map<Long, Pair<BigDecimal, OrderElement>> result = new HashMap<>();
+
+                        for (Object[] each : findValuesAndTasks(currentTaskIds.keySet())) {
+                            Long id = (Long) each[0];
+                            OrderElement previousTask = (OrderElement) each[2];
+
+                            if (previousTask.getId().compareTo(currentTaskIds.get(id)) != 0) {
+                                initializeOrderElement(previousTask);
+                            }
+                            result.put(id, Pair.create((BigDecimal) each[1], previousTask));
+                        }
+                        return result;
+                    }
+                });
     }
 
-    private void updateRelatedSumExpensesWithAddedOrModifiedExpenseSheetLine(final ExpenseSheetLine expenseSheetLine) {
+    @SuppressWarnings("unchecked")
+    private List<Object[]> findValuesAndTasks(Collection<Long> expenseSheetLineIds) {
+        return getSession()
+                .createQuery("SELECT line.id, line.value, line.orderElement "
+                        + "FROM ExpenseSheetLine line WHERE line.id IN (:ids)")
+                .setParameterList("ids", expenseSheetLineIds)
+                .list();
+    }
+
+    private void updateRelatedSumExpensesWithAddedOrModifiedExpenseSheetLine(ExpenseSheetLine expenseSheetLine,
+                                                                              Pair<BigDecimal, OrderElement> saved) {
         boolean increase = true;
         BigDecimal value = expenseSheetLine.getValue();
 
         if (!expenseSheetLine.isNewObject()) {
-            BigDecimal previousValue = transactionService.runOnAnotherTransaction(new IOnTransaction<BigDecimal>() {
-                @Override
-                public BigDecimal execute() {
-                    try {
-                        return expenseSheetLineDAO.find(expenseSheetLine.getId())
-                                .getValue();
-                    } catch (InstanceNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            });
+            BigDecimal previousValue = saved.getFirst();
 
-            boolean isTaskDifferent =
-                    updateRelatedSumExpensesIfTheAssociatedTaskIsDifferent(previousValue, expenseSheetLine);
+            boolean isTaskDifferent = updateRelatedSumExpensesIfTheAssociatedTaskIsDifferent(
+                    previousValue, saved.getSecond(), expenseSheetLine);
 
             if (!isTaskDifferent) {
                 if (value.compareTo(previousValue) >= 0) {
@@ -115,27 +156,9 @@ public class SumExpensesDAO extends GenericDAOHibernate<SumExpenses, Long> imple
     }
 
     private boolean updateRelatedSumExpensesIfTheAssociatedTaskIsDifferent(BigDecimal previousValue,
-                                                                           final ExpenseSheetLine expenseSheetLine) {
-        final OrderElement task = expenseSheetLine.getOrderElement();
-
-        OrderElement previousTask = transactionService.runOnAnotherTransaction(new IOnTransaction<OrderElement>() {
-            @Override
-            public OrderElement execute() {
-                try {
-
-                    OrderElement previousTask = expenseSheetLineDAO
-                            .find(expenseSheetLine.getId())
-                            .getOrderElement();
-
-                    if (task.getId().compareTo(previousTask.getId()) != 0) {
-                        initializeOrderElement(previousTask);
-                    }
-                    return previousTask;
-                } catch (InstanceNotFoundException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
+                                                                           OrderElement previousTask,
+                                                                           ExpenseSheetLine expenseSheetLine) {
+        OrderElement task = expenseSheetLine.getOrderElement();
 
         if (task.getId().compareTo(previousTask.getId()) != 0) {
             substractDirectExpenses(previousTask, previousValue);
@@ -250,35 +273,78 @@ public class SumExpensesDAO extends GenericDAOHibernate<SumExpenses, Long> imple
     public void recalculateSumExpenses(Long orderId) {
         try {
             Order order = orderDAO.find(orderId);
-            resetMapSumExpenses();
-            resetSumExpenses(order);
-            calculateDirectExpenses(order);
+            String treePath = order.getTreePath() + "%";
+
+            recalculateSumExpenses(order,
+                    findSumExpensesByOrderElementId(treePath),
+                    sumDirectExpensesByOrderElementId(treePath));
         } catch (InstanceNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void resetSumExpenses(OrderElement orderElement) {
-        SumExpenses sumExpenses = getByOrderElement(orderElement);
-        if (sumExpenses == null) {
-            sumExpenses = SumExpenses.create(orderElement);
+    private Map<Long, SumExpenses> findSumExpensesByOrderElementId(String treePath) {
+        @SuppressWarnings("unchecked")
+        List<SumExpenses> list = getSession()
+                .createQuery("FROM SumExpenses sumExpenses "
+                        + "WHERE sumExpenses.orderElement.treePath LIKE :treePath")
+                .setParameter("treePath", treePath)
+                .list();
+
+        Map<Long, SumExpenses> result = new HashMap<>();
+        for (SumExpenses each : list) {
+            result.put(each.getOrderElement().getId(), each);
         }
-        sumExpenses.reset();
+        return result;
+    }
 
-        for (OrderElement each : orderElement.getChildren()) {
-            resetSumExpenses(each);
+    private Map<Long, BigDecimal> sumDirectExpensesByOrderElementId(String treePath) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> list = getSession()
+                .createQuery("SELECT line.orderElement.id, SUM(line.value) "
+                        + "FROM ExpenseSheetLine line "
+                        + "WHERE line.orderElement.treePath LIKE :treePath "
+                        + "GROUP BY line.orderElement.id")
+                .setParameter("treePath", treePath)
+                .list();
+
+        Map<Long, BigDecimal> result = new HashMap<>();
+        for (Object[] each : list) {
+            result.put((Long) each[0], (BigDecimal) each[1]);
         }
+        return result;
     }
 
-    private void calculateDirectExpenses(OrderElement orderElement) {
+    /**
+     * Sets the direct and indirect expenses of the {@link SumExpenses} of
+     * <code>orderElement</code> and all its children.
+     *
+     * @return the total expenses of <code>orderElement</code>, direct plus
+     *         indirect
+     */
+    private BigDecimal recalculateSumExpenses(OrderElement orderElement,
+                                              Map<Long, SumExpenses> sumExpensesByOrderElementId,
+                                              Map<Long, BigDecimal> directExpensesByOrderElementId) {
+
+        BigDecimal indirectExpenses = BigDecimal.ZERO;
         for (OrderElement each : orderElement.getChildren()) {
-            calculateDirectExpenses(each);
+            indirectExpenses = indirectExpenses.add(
+                    recalculateSumExpenses(each, sumExpensesByOrderElementId, directExpensesByOrderElementId));
+        }
+
+        BigDecimal directExpenses = directExpensesByOrderElementId.get(orderElement.getId());
+        if (directExpenses == null) {
+            directExpenses = BigDecimal.ZERO;
         }
 
-        BigDecimal value = BigDecimal.ZERO;
-        for (ExpenseSheetLine line : expenseSheetLineDAO.findByOrderElement(orderElement)) {
-            value = value.add(line.getValue());
+        SumExpenses sumExpenses = sumExpensesByOrderElementId.get(orderElement.getId());
+        if (sumExpenses == null) {
+            sumExpenses = SumExpenses.create(orderElement);
         }
-        addDirectExpenses(orderElement, value);
+        sumExpenses.setTotalDirectExpenses(directExpenses);
+        sumExpenses.setTotalIndirectExpenses(indirectExpenses);
+        save(sumExpenses);
+
+        return directExpenses.add(indirectExpenses);
     }
-}
\ No newline at end of file
+}
@@ -97,18 +97,18 @@ public abstract class CriterionRequirementHandler<T, S, R> {
 
     public boolean canAddCriterionRequirement(T orderElement,
             CriterionRequirement newRequirement) {
-        List<T> listOrderElements = getAllChildren(orderElement);
-        listOrderElements.add(orderElement);
-        for (T element : listOrderElements) {
-            if (existSameCriterionRequirement(element, newRequirement)) {
+        if (existSameCriterionRequirement(orderElement, newRequirement)) {
+            return false;
+        }
+        // Stop at the first descendant having it, without listing them all
+        for (T child : getChildren(orderElement)) {
+            if (!canAddCriterionRequirement(child, newRequirement)) {
                 return false;
             }
         }
         return true;
     }
 
-    protected abstract List<T> getAllChildren(T orderElement);
-
     public boolean existSameCriterionRequirement(T orderElement,
             CriterionRequirement newRequirement) {
         if (isOrderLine(orderElement)) {
@@ -276,10 +276,9 @@ public abstract class CriterionRequirementHandler<T, S, R> {
 
     void transformDirectToIndirectIfNeeded(T orderElement,
             Set<IndirectCriterionRequirement> currents) {
+        Set<Criterion> inheritedCriteria = getCriteria(currents);
         for (DirectCriterionRequirement direct : getDirectCriterionRequirement(orderElement)) {
-            IndirectCriterionRequirement indirect = findIndirectRequirementByCriterion(
-                    currents, direct.getCriterion());
-            if (indirect != null) {
+            if (inheritedCriteria.contains(direct.getCriterion())) {
                 removeDirectCriterionRequirement(orderElement, direct);
             }
         }
@@ -312,16 +311,24 @@ public abstract class CriterionRequirementHandler<T, S, R> {
 
     void transformDirectToIndirectIfNeeded(HoursGroup hoursGroup,
             Set<IndirectCriterionRequirement> currents) {
+        Set<Criterion> inheritedCriteria = getCriteria(currents);
         for (DirectCriterionRequirement direct : hoursGroup
                 .getDirectCriterionRequirement()) {
-            IndirectCriterionRequirement indirect = findIndirectRequirementByCriterion(
-                    currents, direct.getCriterion());
-            if (indirect != null) {
+            if (inheritedCriteria.contains(direct.getCriterion())) {
                 hoursGroup.removeCriterionRequirement(direct);
             }
         }
     }
 
+    private static Set<Criterion> getCriteria(
+            Collection<? extends CriterionRequirement> requirements) {
+        Set<Criterion> result = new HashSet<Criterion>();
+        for (CriterionRequirement each : requirements) {
+            result.add(each.getCriterion());
+        }
+        return result;
+    }
+
     void addNewsIndirects(HoursGroup hoursGroup,
             Set<IndirectCriterionRequirement> currents) {
         Set<IndirectCriterionRequirement> indirects = hoursGroup
@@ -346,17 +353,31 @@ public abstract class CriterionRequirementHandler<T, S, R> {
     Set<IndirectCriterionRequirement> getCurrentIndirectRequirements(
             Set<IndirectCriterionRequirement> oldIndirects,
             Set<CriterionRequirement> requirementsParent) {
+        Map<DirectCriterionRequirement, IndirectCriterionRequirement> oldIndirectsByParent = indexByParent(oldIndirects);
         Set<IndirectCriterionRequirement> currentIndirects = new HashSet<IndirectCriterionRequirement>();
         for (CriterionRequirement requirement : requirementsParent) {
             IndirectCriterionRequirement indirect = getCurrentIndirectRequirement(
-                    oldIndirects, requirement);
+                    oldIndirectsByParent, requirement);
             currentIndirects.add(indirect);
         }
         return currentIndirects;
     }
 
-    IndirectCriterionRequirement getCurrentIndirectRequirement(
-            Set<IndirectCriterionRequirement> oldIndirects,
+    private static Map<DirectCriterionRequirement, IndirectCriterionRequirement> indexByParent(
+            Set<IndirectCriterionRequirement> indirects) {
+        Map<DirectCriterionRequirement, IndirectCriterionRequirement> result =
+            new HashMap<DirectCriterionRequirement, IndirectCriterionRequirement>();
+        for (IndirectCriterionRequirement each : indirects) {
+            // Keep the first one found, as the previous linear search did
+            if (!result.containsKey(each.getParent())) {
+                result.put(each.getParent(), each);
+            }
+        }
+        return result;
+    }
+
+    private IndirectCriterionRequirement getCurrentIndirectRequirement(
+            Map<DirectCriterionRequirement, IndirectCriterionRequirement> oldIndirectsByParent,
             CriterionRequirement requirement) {
 
         IndirectCriterionRequirement indirect;
@@ -369,7 +390,7 @@ public abstract class CriterionRequirementHandler<T, S, R> {
             valid = ((IndirectCriterionRequirement) requirement).isValid();
         }
 
-        indirect = findIndirectRequirementByParent(oldIndirects, parent);
+        indirect = oldIndirectsByParent.get(parent);
         if (indirect == null) {
             indirect = IndirectCriterionRequirement.create(parent, requirement
                     .getCriterion());
@@ -390,17 +411,6 @@ public abstract class CriterionRequirementHandler<T, S, R> {
         return null;
     }
 
-    private IndirectCriterionRequirement findIndirectRequirementByCriterion(
-            Set<IndirectCriterionRequirement> indirects, Criterion criterion) {
-
-        for (IndirectCriterionRequirement requirement : indirects) {
-            if (requirement.getCriterion().equals(criterion)) {
-                return requirement;
-            }
-        }
-        return null;
-    }
-
     /*
      * Operation to create and add to a orderElement new criterion requirements
      * that it is copied of the criterion requirements of other orderElement
@@ -57,11 +57,6 @@ public class CriterionRequirementOrderElementHandler extends
         return orderLineGroup.getChildren();
     }
 
-    @Override
-    protected List<OrderElement> getAllChildren(OrderElement orderElement) {
-        return orderElement.getAllChildren();
-    }
-
     @Override
     protected List<OrderElement> getChildren(OrderElement orderElement) {
         return orderElement.getChildren();
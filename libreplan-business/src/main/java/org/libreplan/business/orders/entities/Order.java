@@ -46,6 +46,7 @@ import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.Registry;
 import org.libreplan.business.common.entities.EntitySequence;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.externalcompanies.entities.CustomerCommunication;
 import org.libreplan.business.externalcompanies.entities.DeadlineCommunication;
 import org.libreplan.business.externalcompanies.entities.DeliverDateComparator;
@@ -125,6 +126,14 @@ public class Order extends OrderLineGroup implements Comparable {
 
     private Integer budgetMargin;
 
+    /**
+     * Codes of the elements of this order already used in other orders. It's
+     * only filled while validating, so the constraint of each element doesn't
+     * need its own query.
+     */
+    private Set<String> codesUsedInAnotherOrder = null;
+
+    private boolean validating = false;
 
     public Order() {
         /**
@@ -706,20 +715,44 @@ public class Order extends OrderLineGroup implements Comparable {
 
     @AssertTrue(message = "task code is repeated inside the project")
     public boolean isUniqueCodeInsideOrderConstraint() {
-        List<String> codes = new ArrayList<>();
+        Set<String> codes = new HashSet<>();
         codes.add(getCode());
 
         for (OrderElement child : getAllChildren()) {
-            String childCode = child.getCode();
-            if (codes.contains(childCode)) {
+            if (!codes.add(child.getCode())) {
                 return false;
             }
-            codes.add(childCode);
         }
 
         return true;
     }
 
+    @Override
+    public void validate() throws ValidationException {
+        validating = true;
+        try {
+            super.validate();
+        } finally {
+            validating = false;
+            codesUsedInAnotherOrder = null;
+        }
+    }
+
+    /**
+     * @return <code>null</code> if it's not known without checking the
+     *         element, i.e. when the order is not being validated
+     */
+    Boolean isCodeUsedInAnotherOrder(String code) {
+        if (!validating) {
+            return null;
+        }
+        if (codesUsedInAnotherOrder == null) {
+            codesUsedInAnotherOrder = Registry.getOrderElementDAO()
+                    .findCodesUsedInAnotherOrderAnotherTransaction(this);
+        }
+        return codesUsedInAnotherOrder.contains(code);
+    }
+
     public void calculateAndSetTotalHours() {
         int result = 0;
         for (OrderElement orderElement : this.getChildren()) {
@@ -518,6 +518,31 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
         this.parent = parent;
     }
 
+    /**
+     * Ids of the elements from the root {@link Order} down to this one, like
+     * <code>/1/5/7/</code>. It's stored so all the elements below one can be
+     * found with a prefix search, without loading the tree. The children are
+     * always loaded with their parent, so when an element is moved the paths
+     * of the whole subtree are updated on flush.
+     *
+     * @return <code>null</code> if this element or any of its ancestors has
+     *         not been saved yet
+     */
+    public String getTreePath() {
+        if ( getId() == null ) {
+            return null;
+        }
+
+        String parentPath = parent == null ? "/" : parent.getTreePath();
+
+        return parentPath == null ? null : parentPath + getId() + "/";
+    }
+
+    @SuppressWarnings("unused")
+    private void setTreePath(String treePath) {
+        // It's always calculated from the parent, the stored value is ignored
+    }
+
     public abstract Integer getWorkHours();
 
     public abstract List<HoursGroup> getHoursGroups();
@@ -1117,8 +1142,16 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
 
     @AssertTrue(message = "code is already used in another project")
     public boolean isCodeRepeatedInAnotherOrderConstraint() {
-        return StringUtils.isBlank(getCode()) ||
-                !Registry.getOrderElementDAO().existsByCodeInAnotherOrderAnotherTransaction(this);
+        if (StringUtils.isBlank(getCode())) {
+            return true;
+        }
+
+        Order order = getOrder();
+        Boolean usedInAnotherOrder = order != null ? order.isCodeUsedInAnotherOrder(getCode()) : null;
+        if (usedInAnotherOrder != null) {
+            return !usedInAnotherOrder;
+        }
+        return !Registry.getOrderElementDAO().existsByCodeInAnotherOrderAnotherTransaction(this);
     }
 
     @AssertTrue(message = "a label can not be assigned twice in the same branch")
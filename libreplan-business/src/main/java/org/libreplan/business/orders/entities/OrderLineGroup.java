@@ -53,6 +53,7 @@ import org.libreplan.business.materials.entities.MaterialAssignment;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
 import org.libreplan.business.qualityforms.entities.TaskQualityForm;
+import org.libreplan.business.requirements.entities.CriterionRequirement;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
 import org.libreplan.business.templates.entities.OrderLineGroupTemplate;
@@ -95,7 +96,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
         @Override
         protected void onChildAddedAdditionalActions(OrderElement newChild) {
-            updateCriterionRequirements();
+            updateCriterionRequirementsAfterChildrenChange(newChild);
             newChild.updateLabels();
             if ( !newChild.isNewObject() ) {
                 getOrder().markAsNeededToRecalculateSumChargedEfforts();
@@ -109,7 +110,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
                 removeChildTask(removedChild);
             }
 
-            updateCriterionRequirements();
+            updateCriterionRequirementsAfterChildrenChange(null);
 
             if ( !removedChild.isNewObject() ) {
                 getOrder().markAsNeededToRecalculateSumChargedEfforts();
@@ -975,6 +976,22 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         }
     }
 
+    /**
+     * Adding or removing a child doesn't change the requirements of the other
+     * children. So they are only propagated to the whole subtree if the ones
+     * of this group have changed, otherwise just to <code>newChild</code>.
+     */
+    private void updateCriterionRequirementsAfterChildrenChange(OrderElement newChild) {
+        Set<CriterionRequirement> previous = new HashSet<>(criterionRequirements);
+        criterionRequirementHandler.updateMyCriterionRequirements(this);
+
+        if ( !previous.equals(criterionRequirements) ) {
+            criterionRequirementHandler.propagateUpdateCriterionRequirements(this);
+        } else if ( newChild != null ) {
+            newChild.updateCriterionRequirements();
+        }
+    }
+
     protected void copyRequirementToOrderElement(OrderLine leaf) {
         criterionRequirementHandler.copyRequirementToOrderLine(this, leaf);
     }
@@ -19,8 +19,12 @@
 
 package org.libreplan.business.orders.entities;
 
-import java.util.concurrent.ExecutorService;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,7 +43,8 @@ import org.springframework.stereotype.Component;
  * .<br />
  *
  * This class uses a thread, in order to call one by one all the requests
- * received. Moreover, if there's any concurrency issue (because of some reports
+ * received, merging the requests for an order that is still waiting to be
+ * recalculated. Moreover, if there's any concurrency issue (because of some reports
  * were saving in the meanwhile) the recalculation is repeated again (with
  * <code>MAX_ATTEMPS_BECAUSE_CONCURRENCY</code> as maximum) till it's performed
  * without concurrency problems.
@@ -66,55 +71,61 @@ public class SumExpensesRecalculator implements ISumExpensesRecalculator {
     @Autowired
     private ISumExpensesDAO sumExpensesDAO;
 
+    /**
+     * Orders marked to be recalculated whose recalculation has not started
+     * yet. Marking again one of them does nothing, as the pending
+     * recalculation will already use the last saved data.
+     */
+    private final Set<Long> pendingOrderIds = Collections.synchronizedSet(new HashSet<Long>());
+
     /**
      * Single thread executor in order to perform the recalculations one by one.
      */
-    private ExecutorService executor = Executors.newSingleThreadExecutor();
+    private ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
     @Override
     public void recalculate(Long orderId) {
+        if (!pendingOrderIds.add(orderId)) {
+            LOG.info("Order (id=" + orderId + ") is already marked to be recalculated");
+            return;
+        }
+
         LOG.info("Mark order (id=" + orderId + ") to be recalculated");
-        executor.execute(getRecalculationThread(orderId));
+        executor.execute(getRecalculationThread(orderId, 0));
     }
 
-    private Runnable getRecalculationThread(final Long orderId) {
+    private Runnable getRecalculationThread(final Long orderId, final int attempt) {
         return new Runnable() {
 
             @Override
             public void run() {
-                try {
-                    recalculateSumExpensess(orderId);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            private void recalculateSumExpensess(Long orderId) throws InterruptedException {
-                recalculateSumExpensess(orderId, 0);
-            }
-
-            private void recalculateSumExpensess(Long orderId, int counter)
-                    throws InterruptedException {
-                if (counter > MAX_ATTEMPS_BECAUSE_CONCURRENCY) {
-                    LOG.error("Impossible to recalculate order (id=" + orderId
-                            + ") due to concurrency problems");
-                    return;
-                }
+                pendingOrderIds.remove(orderId);
 
                 try {
                     LOG.info("Recalculate order (id=" + orderId + ")");
                     sumExpensesDAO.recalculateSumExpenses(orderId);
                 } catch (OptimisticLockingFailureException e) {
-                    // Wait 1 second and try again
-                    LOG.info("Concurrency problem recalculating order (id=" + orderId
-                            + ") trying again in 1 second (attempt " + counter + ")");
-                    Thread.sleep(1000);
-
-                    counter++;
-                    recalculateSumExpensess(orderId, counter);
+                    recalculateLater(orderId, attempt + 1);
                 }
             }
         };
     }
 
-}
\ No newline at end of file
+    private void recalculateLater(Long orderId, int attempt) {
+        if (attempt > MAX_ATTEMPS_BECAUSE_CONCURRENCY) {
+            LOG.error("Impossible to recalculate order (id=" + orderId + ") due to concurrency problems");
+            return;
+        }
+
+        if (!pendingOrderIds.add(orderId)) {
+            // Another recalculation was requested meanwhile, no need to retry this one
+            return;
+        }
+
+        // Try again in 1 second without blocking the recalculation of other orders
+        LOG.info("Concurrency problem recalculating order (id=" + orderId
+                + ") trying again in 1 second (attempt " + attempt + ")");
+        executor.schedule(getRecalculationThread(orderId, attempt), 1, TimeUnit.SECONDS);
+    }
+
+}
@@ -27,6 +27,7 @@ import static org.libreplan.business.planner.chart.ContiguousDaysLine.toSortedMa
 import static org.libreplan.business.workingday.EffortDuration.min;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -81,13 +82,71 @@ public class ResourceLoadChartData implements ILoadChartData {
         ContiguousDaysLine<EffortDuration> overload = assignments.transform(extractOverload());
 
         ContiguousDaysLine<EffortDuration> availabilityOnAllResources =
-                assignments.transform(extractAvailabilityOnAllResources(resources));
+                assignments.transform(ResourceLoadChartData.<List<DayAssignment>> extractAvailabilityOnAllResources(
+                        resources));
+
+        setValues(load, overload, availabilityOnAllResources);
+    }
+
+    /**
+     * Creates the data from the effort already aggregated by day and resource,
+     * so the {@link DayAssignment} entities don't need to be loaded.
+     */
+    public ResourceLoadChartData(SortedMap<LocalDate, Map<Resource, EffortDuration>> effortByDayAndResource,
+                                 List<Resource> resources) {
+
+        ContiguousDaysLine<Map<Resource, EffortDuration>> efforts = byDay(effortByDayAndResource);
+
+        ContiguousDaysLine<EffortDuration> load = efforts.transform(sumEfforts());
+
+        ContiguousDaysLine<EffortDuration> overload = efforts.transform(calculateOverload());
+
+        ContiguousDaysLine<EffortDuration> availabilityOnAllResources =
+                efforts.transform(ResourceLoadChartData.<Map<Resource, EffortDuration>> extractAvailabilityOnAllResources(
+                        resources));
+
+        setValues(load, overload, availabilityOnAllResources);
+    }
+
+    private void setValues(ContiguousDaysLine<EffortDuration> load,
+                           ContiguousDaysLine<EffortDuration> overload,
+                           ContiguousDaysLine<EffortDuration> availabilityOnAllResources) {
 
         this.load = toSortedMap(ContiguousDaysLine.min(load, availabilityOnAllResources));
         this.overload = toSortedMap(sum(overload, availabilityOnAllResources));
         this.availability = toSortedMap(availabilityOnAllResources);
     }
 
+    private static ContiguousDaysLine<Map<Resource, EffortDuration>> byDay(
+            SortedMap<LocalDate, Map<Resource, EffortDuration>> effortByDayAndResource) {
+
+        if (effortByDayAndResource.isEmpty()) {
+            return ContiguousDaysLine.invalid();
+        }
+        ContiguousDaysLine<Map<Resource, EffortDuration>> result = ContiguousDaysLine.create(
+                effortByDayAndResource.firstKey(), effortByDayAndResource.lastKey().plusDays(1));
+
+        result.setValueForAll(Collections.<Resource, EffortDuration> emptyMap());
+        for (Entry<LocalDate, Map<Resource, EffortDuration>> each : effortByDayAndResource.entrySet()) {
+            result.set(each.getKey(), each.getValue());
+        }
+        return result;
+    }
+
+    private static IValueTransformer<Map<Resource, EffortDuration>, EffortDuration> sumEfforts() {
+        return new IValueTransformer<Map<Resource, EffortDuration>, EffortDuration>() {
+
+            @Override
+            public EffortDuration transform(LocalDate day, Map<Resource, EffortDuration> previousValue) {
+                EffortDuration result = EffortDuration.zero();
+                for (EffortDuration each : previousValue.values()) {
+                    result = result.plus(each);
+                }
+                return result;
+            }
+        };
+    }
+
     public static IValueTransformer<List<DayAssignment>, EffortDuration> extractOverload() {
         return compound(effortByResource(), calculateOverload());
     }
@@ -157,13 +216,13 @@ public class ResourceLoadChartData implements ILoadChartData {
         };
     }
 
-    private IValueTransformer<List<DayAssignment>, EffortDuration> extractAvailabilityOnAllResources(
+    private static <T> IValueTransformer<T, EffortDuration> extractAvailabilityOnAllResources(
             final List<Resource> resources) {
 
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
+        return new IValueTransformer<T, EffortDuration>() {
 
             @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
+            public EffortDuration transform(LocalDate day, T previousValue) {
                 return sumCalendarCapacitiesForDay(resources, day);
             }
         };
@@ -28,6 +28,8 @@ import java.util.List;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
@@ -37,6 +39,7 @@ import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -54,6 +57,8 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
 
     private final String SCENARIO = "scenario";
 
+    private static final int FETCH_SIZE = 1000;
+
     @Override
     public void removeDerived(Collection<? extends DerivedDayAssignment> assignments) {
         for (DerivedDayAssignment each : assignments) {
@@ -161,6 +166,36 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
         return query.list();
     }
 
+    @Override
+    public void visitEffortFor(
+            Scenario scenario, LocalDate initInclusive, LocalDate endInclusive, IEffortVisitor visitor) {
+
+        visitEffortFor("SpecificDayAssignmentsContainer", scenario, initInclusive, endInclusive, visitor);
+        visitEffortFor("GenericDayAssignmentsContainer", scenario, initInclusive, endInclusive, visitor);
+        visitEffortFor("DerivedDayAssignmentsContainer", scenario, initInclusive, endInclusive, visitor);
+    }
+
+    private void visitEffortFor(String containerEntity, Scenario scenario,
+                                LocalDate initInclusive, LocalDate endInclusive, IEffortVisitor visitor) {
+
+        String queryString = "select d.resource.id, d.day, d.duration from " + containerEntity + " c " +
+                "JOIN c.dayAssignments d where c.scenario = :scenario" +
+                addQueryConditionForInitAndEndDate(initInclusive, endInclusive);
+
+        Query query = getSession().createQuery(queryString).setParameter(SCENARIO, scenario);
+        addInitAndEndParameters(query, initInclusive, endInclusive);
+        query.setFetchSize(FETCH_SIZE).setReadOnly(true);
+
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                visitor.visit((Long) results.get(0), (LocalDate) results.get(1), (EffortDuration) results.get(2));
+            }
+        } finally {
+            results.close();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<DayAssignment> listFilteredByDate(LocalDate init, LocalDate end) {
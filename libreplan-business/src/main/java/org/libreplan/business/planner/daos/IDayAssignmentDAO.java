@@ -30,6 +30,7 @@ import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.DerivedDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 
 /**
  * DAO interface for {@link DayAssignment}
@@ -40,6 +41,14 @@ import org.libreplan.business.scenarios.entities.Scenario;
  */
 public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
 
+    /**
+     * Receives the effort of each {@link DayAssignment} visited by
+     * {@link IDayAssignmentDAO#visitEffortFor(Scenario, LocalDate, LocalDate, IEffortVisitor)}.
+     */
+    interface IEffortVisitor {
+        void visit(Long resourceId, LocalDate day, EffortDuration effort);
+    }
+
     public void removeDerived(
             Collection<? extends DerivedDayAssignment> derivedAllocations);
 
@@ -52,6 +61,15 @@ public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
             LocalDate startDateInclusive, LocalDate endDateInclusive,
             Resource resource);
 
+    /**
+     * Like {@link #getAllFor(Scenario, LocalDate, LocalDate)} but only the
+     * resource, day and effort of each assignment are retrieved and they are
+     * scrolled from the database instead of being loaded at once. No entities
+     * are added to the session, so it can be used for aggregating all the
+     * assignments of a scenario.
+     */
+    void visitEffortFor(Scenario scenario, LocalDate initInclusive, LocalDate endInclusive, IEffortVisitor visitor);
+
     List<DayAssignment> listFilteredByDate(LocalDate init, LocalDate end);
 
     public List<DayAssignment> findByResources(Scenario scenario, List<Resource> resources);
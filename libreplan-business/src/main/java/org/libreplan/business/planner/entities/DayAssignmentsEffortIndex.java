@@ -0,0 +1,114 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.entities;
+
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Cumulative effort of a list of {@link DayAssignment} ordered by day, so the
+ * effort on any interval of days is computed with a binary search instead of
+ * walking the assignments.
+ * <p>
+ * It must be discarded when the assignments or their consolidated values
+ * change.
+ *
+ * @see DayAssignment#orderedByDay(java.util.Collection)
+ */
+class DayAssignmentsEffortIndex<T extends DayAssignment> {
+
+    private final List<T> orderedAssignments;
+
+    /**
+     * Seconds assigned before each position, with one more element for the
+     * total.
+     */
+    private final long[] cumulative;
+
+    private final long[] cumulativeConsolidated;
+
+    DayAssignmentsEffortIndex(List<T> orderedAssignments) {
+        this.orderedAssignments = orderedAssignments;
+        this.cumulative = new long[orderedAssignments.size() + 1];
+        this.cumulativeConsolidated = new long[orderedAssignments.size() + 1];
+
+        int i = 0;
+        for (T each : orderedAssignments) {
+            long effort = each.getDuration().getSeconds();
+            cumulative[i + 1] = cumulative[i] + effort;
+            cumulativeConsolidated[i + 1] = cumulativeConsolidated[i] + (each.isConsolidated() ? effort : 0);
+            i++;
+        }
+    }
+
+    EffortDuration getTotal() {
+        return toEffort(cumulative[orderedAssignments.size()]);
+    }
+
+    EffortDuration getConsolidated() {
+        return toEffort(cumulativeConsolidated[orderedAssignments.size()]);
+    }
+
+    EffortDuration getNonConsolidated() {
+        int last = orderedAssignments.size();
+
+        return toEffort(cumulative[last] - cumulativeConsolidated[last]);
+    }
+
+    /**
+     * @return the effort of the assignments whose day is in the interval
+     */
+    EffortDuration between(LocalDate startInclusive, LocalDate endExclusive) {
+        if ( !startInclusive.isBefore(endExclusive) ) {
+            return EffortDuration.zero();
+        }
+
+        return toEffort(cumulative[firstAtOrAfter(endExclusive)] - cumulative[firstAtOrAfter(startInclusive)]);
+    }
+
+    List<T> getAssignmentsAt(LocalDate day) {
+        return orderedAssignments.subList(firstAtOrAfter(day), firstAtOrAfter(day.plusDays(1)));
+    }
+
+    private int firstAtOrAfter(LocalDate day) {
+        int start = 0;
+        int end = orderedAssignments.size() - 1;
+
+        while (start <= end) {
+            int middle = start + (end - start) / 2;
+            if ( orderedAssignments.get(middle).getDay().compareTo(day) < 0 ) {
+                start = middle + 1;
+            } else {
+                end = middle - 1;
+            }
+        }
+
+        return start;
+    }
+
+    private static EffortDuration toEffort(long seconds) {
+        return seconds((int) seconds);
+    }
+
+}
@@ -33,6 +33,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.apache.commons.collections4.ComparatorUtils;
@@ -214,7 +215,8 @@ public class EffortDistributor {
             this.calendar = generateCalendarFor(resource);
         }
 
-        ResourceWithAvailableCapacity withAvailableCapacityOn(PartialDay day, IAssignedEffortForResource assignedEffort) {
+        ResourceWithAvailableCapacity withAvailableCapacityOn(
+                PartialDay day, IAssignedEffortForResource assignedEffort, int position) {
             EffortDuration allCapacityForDay = calendar.getCapacityOn(PartialDay.wholeDay(day.getDate()));
             EffortDuration capacity = calendar.getCapacityOn(day);
 
@@ -225,7 +227,7 @@ public class EffortDistributor {
 
             EffortDuration available = capacity.minus(min(assignedInterfering, capacity));
 
-            return new ResourceWithAvailableCapacity(resource, available);
+            return new ResourceWithAvailableCapacity(resource, available, position);
         }
 
         Capacity getAvailableCapacityOn(PartialDay day, IAssignedEffortForResource assignedEffort) {
@@ -245,11 +247,18 @@ public class EffortDistributor {
 
         private final EffortDuration available;
 
-        public ResourceWithAvailableCapacity(Resource resource, EffortDuration available) {
+        /**
+         * Position among the resources assignable at the day. It's used for
+         * breaking ties so the order is the same than a stable sort.
+         */
+        private final int position;
+
+        public ResourceWithAvailableCapacity(Resource resource, EffortDuration available, int position) {
             Validate.notNull(resource);
             Validate.notNull(available);
             this.resource = resource;
             this.available = available;
+            this.position = position;
         }
 
         public ResourceWithAssignedDuration doBiggestAssignationPossible(EffortDuration remaining) {
@@ -279,6 +288,19 @@ public class EffortDistributor {
                     ComparatorUtils.naturalComparator());
         }
 
+        static Comparator<ResourceWithAvailableCapacity> fromMoreToLessDesirable(Set<Resource> lastResourcesUsed) {
+            final Comparator<ResourceWithAvailableCapacity> moreDesirableFirst =
+                    Collections.reverseOrder(getComparatorConsidering(lastResourcesUsed));
+
+            return new Comparator<ResourceWithAvailableCapacity>() {
+                @Override
+                public int compare(ResourceWithAvailableCapacity o1, ResourceWithAvailableCapacity o2) {
+                    int result = moreDesirableFirst.compare(o1, o2);
+                    return result != 0 ? result : Integer.compare(o1.position, o2.position);
+                }
+            };
+        }
+
     }
 
     private final List<ResourceWithDerivedData> resources;
@@ -289,6 +311,23 @@ public class EffortDistributor {
 
     private Set<Resource> resourcesAlreadyPicked = new HashSet<>();
 
+    /**
+     * Reused for each day. The comparator depends on
+     * {@link #resourcesAlreadyPicked}, that is only modified once the
+     * distribution for a day is done.
+     */
+    private final PriorityQueue<ResourceWithAvailableCapacity> fromMoreToLessDesirable =
+            new PriorityQueue<>(11, ResourceWithAvailableCapacity.fromMoreToLessDesirable(resourcesAlreadyPicked));
+
+    /**
+     * {@link #getCapacityAt(PartialDay)} and
+     * {@link #distributeForDay(PartialDay, EffortDuration)} are called for the
+     * same day, so the last resources selected are kept.
+     */
+    private LocalDate lastDaySelected;
+
+    private List<ResourceWithDerivedData> resourcesAssignableAtLastDay;
+
     public EffortDistributor(List<Resource> resources, IAssignedEffortForResource assignedHoursForResource) {
         this(resources, assignedHoursForResource, null);
     }
@@ -338,6 +377,14 @@ public class EffortDistributor {
     }
 
     private List<ResourceWithDerivedData> resourcesAssignableAt(LocalDate day) {
+        if (!day.equals(lastDaySelected)) {
+            resourcesAssignableAtLastDay = calculateResourcesAssignableAt(day);
+            lastDaySelected = day;
+        }
+        return resourcesAssignableAtLastDay;
+    }
+
+    private List<ResourceWithDerivedData> calculateResourcesAssignableAt(LocalDate day) {
         List<ResourceWithDerivedData> result = new ArrayList<>();
         for (ResourceWithDerivedData each : resources) {
             if (resourceSelector.isSelectable(each.resource, day)) {
@@ -350,34 +397,36 @@ public class EffortDistributor {
     private List<ResourceWithAssignedDuration> assignAllPossibleWithoutOvertime(
             PartialDay day, EffortDuration totalDuration, List<ResourceWithDerivedData> resourcesAssignable) {
 
-        List<ResourceWithAvailableCapacity> fromMoreToLessCapacity =
+        PriorityQueue<ResourceWithAvailableCapacity> fromMoreToLessCapacity =
                 resourcesFromMoreDesirableToLess(resourcesAssignable, day);
 
         EffortDuration remaining = totalDuration;
         List<ResourceWithAssignedDuration> result = new ArrayList<>();
-        for (ResourceWithAvailableCapacity each : fromMoreToLessCapacity) {
+        while (!remaining.isZero() && !fromMoreToLessCapacity.isEmpty()) {
+            ResourceWithAvailableCapacity each = fromMoreToLessCapacity.poll();
             if (!each.available.isZero()) {
                 ResourceWithAssignedDuration r = each.doBiggestAssignationPossible(remaining);
                 remaining = remaining.minus(r.duration);
-                if (!r.duration.isZero()) {
-                    result.add(r);
-                }
+                result.add(r);
             }
         }
+        fromMoreToLessCapacity.clear();
         return result;
     }
 
-    private List<ResourceWithAvailableCapacity> resourcesFromMoreDesirableToLess(
+    /**
+     * Only the most desirable resources are needed until the effort is
+     * assigned, so they are kept in a heap instead of sorting all of them.
+     */
+    private PriorityQueue<ResourceWithAvailableCapacity> resourcesFromMoreDesirableToLess(
             List<ResourceWithDerivedData> resourcesAssignable, PartialDay day) {
 
-        List<ResourceWithAvailableCapacity> result = new ArrayList<>();
+        PriorityQueue<ResourceWithAvailableCapacity> result = fromMoreToLessDesirable;
+        result.clear();
+        int position = 0;
         for (ResourceWithDerivedData each : resourcesAssignable) {
-            result.add(each.withAvailableCapacityOn(day, assignedEffortForResource));
+            result.add(each.withAvailableCapacityOn(day, assignedEffortForResource, position++));
         }
-        Collections.sort(
-                result,
-                Collections.reverseOrder(ResourceWithAvailableCapacity.getComparatorConsidering(resourcesAlreadyPicked)));
-
         return result;
     }
 
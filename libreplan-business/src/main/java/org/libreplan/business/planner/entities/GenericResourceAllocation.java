@@ -183,9 +183,10 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
 
     private final class ResourcesSatisfyingCriterionsSelector implements IResourceSelector {
 
+        private final ICriterion compoundCriterion = CriterionCompounder.buildAnd(criterions).getResult();
+
         @Override
         public boolean isSelectable(Resource resource, LocalDate day) {
-            ICriterion compoundCriterion = CriterionCompounder.buildAnd(criterions).getResult();
             return compoundCriterion.isSatisfiedBy(resource, day);
         }
     }
@@ -1136,6 +1136,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         for (T each : getAssignments()) {
             each.setConsolidated(each.getDay().isBefore(firstNotConsolidated));
         }
+        getDayAssignmentsState().clearCachedData();
     }
 
     private void resetAssignmentsFittingAllocationDatesToResultingAssignments(
@@ -1354,7 +1355,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
     }
 
     public EffortDuration getAssignedEffort() {
-        return DayAssignment.sum(getAssignments());
+        return getDayAssignmentsState().getEffortIndex().getTotal();
     }
 
     protected EffortDuration getIntendedNonConsolidatedEffort() {
@@ -1377,6 +1378,10 @@ public abstract class ResourceAllocation<T extends DayAssignment>
 
         private List<T> dayAssignmentsOrdered = null;
 
+        private DayAssignmentsEffortIndex<T> effortIndex = null;
+
+        private Map<Resource, DayAssignmentsEffortIndex<T>> effortIndexByResource = null;
+
         protected List<T> getOrderedDayAssignments() {
             if ( dayAssignmentsOrdered == null ) {
                 dayAssignmentsOrdered = DayAssignment.orderedByDay(getUnorderedAssignments());
@@ -1384,6 +1389,25 @@ public abstract class ResourceAllocation<T extends DayAssignment>
             return dayAssignmentsOrdered;
         }
 
+        DayAssignmentsEffortIndex<T> getEffortIndex() {
+            if ( effortIndex == null ) {
+                effortIndex = new DayAssignmentsEffortIndex<>(getOrderedDayAssignments());
+            }
+            return effortIndex;
+        }
+
+        DayAssignmentsEffortIndex<T> getEffortIndex(Resource resource) {
+            if ( effortIndexByResource == null ) {
+                effortIndexByResource = new HashMap<>();
+                for (Entry<Resource, List<T>> each : DayAssignment.byResource(getOrderedDayAssignments()).entrySet()) {
+                    effortIndexByResource.put(each.getKey(), new DayAssignmentsEffortIndex<>(each.getValue()));
+                }
+            }
+            DayAssignmentsEffortIndex<T> result = effortIndexByResource.get(resource);
+
+            return result != null ? result : new DayAssignmentsEffortIndex<>(Collections.<T> emptyList());
+        }
+
         /**
          * It can be null.
          * It allows to mark that the allocation is started in a point within a day instead of the start of the day.
@@ -1425,6 +1449,8 @@ public abstract class ResourceAllocation<T extends DayAssignment>
 
         protected void clearCachedData() {
             dayAssignmentsOrdered = null;
+            effortIndex = null;
+            effortIndexByResource = null;
         }
 
         private void setParentFor(Collection<? extends T> assignments) {
@@ -1662,7 +1688,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
     }
 
     public EffortDuration getConsolidatedEffort() {
-        return DayAssignment.sum(getConsolidatedAssignments());
+        return getDayAssignmentsState().getEffortIndex().getConsolidated();
     }
 
     public int getNonConsolidatedHours() {
@@ -1674,7 +1700,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
     }
 
     public EffortDuration getNonConsolidatedEffort() {
-        return DayAssignment.sum(getNonConsolidatedAssignments());
+        return getDayAssignmentsState().getEffortIndex().getNonConsolidated();
     }
 
     /**
@@ -1795,18 +1821,13 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         return getEndDate() != null && getEndDate().compareTo(date) <= 0;
     }
 
-    private interface PredicateOnDayAssignment {
-        boolean satisfiedBy(DayAssignment dayAssignment);
-    }
-
     public int getAssignedHours(final Resource resource, LocalDate start, LocalDate endExclusive) {
         return getAssignedEffort(
                 resource, IntraDayDate.create(start, zero()), IntraDayDate.create(endExclusive, zero())).roundToHours();
     }
 
     public EffortDuration getAssignedEffort(final Resource resource, IntraDayDate start, IntraDayDate endExclusive) {
-        return getAssignedDuration(
-                getAssingments(resource, start.getDate(), endExclusive.asExclusiveEnd()), start, endExclusive);
+        return getAssignedDuration(getDayAssignmentsState().getEffortIndex(resource), start, endExclusive);
     }
 
     @Override
@@ -1816,13 +1837,6 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         return getAssignedEffort(resource, start, start.nextDayAtStart());
     }
 
-    private List<DayAssignment> getAssingments(
-            final Resource resource, LocalDate startInclusive, LocalDate endExclusive) {
-
-        return filter(
-                getAssignments(startInclusive, endExclusive), dayAssignment -> dayAssignment.isAssignedTo(resource));
-    }
-
     public List<DayAssignment> getAssignments(IntraDayDate start, IntraDayDate endExclusive) {
         return getAssignments(start.getDate(), endExclusive.asExclusiveEnd());
     }
@@ -1839,18 +1853,33 @@ public abstract class ResourceAllocation<T extends DayAssignment>
     public abstract EffortDuration getAssignedEffort(
             Criterion criterion, IntraDayDate startInclusive, IntraDayDate endExclusive);
 
-    private List<DayAssignment> filter(List<DayAssignment> assignments, PredicateOnDayAssignment predicate) {
-        List<DayAssignment> result = new ArrayList<>();
-        for (DayAssignment dayAssignment : assignments) {
-            if (predicate.satisfiedBy(dayAssignment)) {
-                result.add(dayAssignment);
-            }
-        }
-        return result;
+    protected EffortDuration getAssignedDuration(IntraDayDate startInclusive, IntraDayDate endExclusive) {
+        return getAssignedDuration(getDayAssignmentsState().getEffortIndex(), startInclusive, endExclusive);
     }
 
-    protected EffortDuration getAssignedDuration(IntraDayDate startInclusive, IntraDayDate endExclusive) {
-        return getAssignedDuration(getAssignments(startInclusive, endExclusive), startInclusive, endExclusive);
+    /**
+     * Only the first and the last day of the interval can be partial, the
+     * effort of the days between them is taken from the index.
+     */
+    private EffortDuration getAssignedDuration(DayAssignmentsEffortIndex<?> index,
+                                               IntraDayDate startInclusive,
+                                               IntraDayDate endExclusive) {
+
+        LocalDate firstDay = startInclusive.getDate();
+        LocalDate lastDay = endExclusive.getDate();
+        LocalDate endDay = endExclusive.asExclusiveEnd();
+
+        if ( !firstDay.isBefore(endDay) ) {
+            return zero();
+        }
+
+        List<DayAssignment> onPartialDays = new ArrayList<>(index.getAssignmentsAt(firstDay));
+        if ( lastDay.isAfter(firstDay) && lastDay.isBefore(endDay) ) {
+            onPartialDays.addAll(index.getAssignmentsAt(lastDay));
+        }
+
+        return index.between(firstDay.plusDays(1), lastDay)
+                .plus(getAssignedDuration(onPartialDays, startInclusive, endExclusive));
     }
 
     private EffortDuration sumDuration(Collection<? extends DayAssignment> assignments) {
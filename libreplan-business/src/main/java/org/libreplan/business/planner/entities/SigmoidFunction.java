@@ -18,10 +18,6 @@
  */
 package org.libreplan.business.planner.entities;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.BaseCalendar;
@@ -29,19 +25,24 @@ import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 
 /**
+ * Distributes the hours of an allocation following a sigmoid curve.
+ *
+ * The curve is computed over primitive arrays in fixed point arithmetic with
+ * six decimal digits (millionths of hour), so the results are the same than
+ * the ones obtained rounding to that precision with {@link java.math.BigDecimal}
+ * but without allocating an object per operation.
  *
  * @author Diego Pino Garcia<dpino@igalia.com>
  *
  */
 public class SigmoidFunction extends AssignmentFunction {
 
-    private static final int PRECISSION = 6;
-
-    private static final int ROUND_MODE = BigDecimal.ROUND_HALF_EVEN;
+    private static final long PRECISSION = 1000000L;
 
     // Fragmentation of hours (0.25, 0.50, 0.75, 1). 1 indicates no fragmentation
-    private static final BigDecimal HOUR_FRAGMENTATION = BigDecimal
-            .valueOf(0.25);
+    private static final long HOUR_FRAGMENTATION = PRECISSION / 4;
+
+    private static final int SECONDS_PER_FRAGMENT = 3600 / 4;
 
     public static SigmoidFunction create() {
         return create(new SigmoidFunction());
@@ -68,33 +69,19 @@ public class SigmoidFunction extends AssignmentFunction {
 
         final LocalDate previousEndDate = resourceAllocation.getEndDate();
 
-        EffortDuration capacity;
         BaseCalendar calendar = resourceAllocation.getTask().getCalendar();
-        int daysDuration = daysWithAllocatedHours(resourceAllocation).size();
+        int daysDuration = daysWithAllocatedHours(resourceAllocation);
 
-        // Calculate hours per day and round values
-        BigDecimal[] hoursToAllocatePerDay = generateHoursToAllocateFor(daysDuration, totalHours);
-        hoursToAllocatePerDay = roundValues(hoursToAllocatePerDay, HOUR_FRAGMENTATION);
-
-        // Calculate reminder (difference between totalHours and sum of hours calculated)
-        BigDecimal totalHoursToAllocate = sumHoursPerDay(hoursToAllocatePerDay);
-        assert(totalHoursToAllocate.compareTo(BigDecimal.valueOf(totalHours)) <= 0);
-        BigDecimal remindingHours = BigDecimal.valueOf(totalHours).subtract(totalHoursToAllocate);
-        allocateRemindingHours(hoursToAllocatePerDay, remindingHours);
-        avoidZeroHoursInDays(hoursToAllocatePerDay);
-
-        assert(hoursToAllocatePerDay.length == daysDuration);
+        int[] secondsToAllocatePerDay = secondsPerDay(daysDuration, totalHours);
 
         // Starting from startDate do allocation, one slot of hours per day in resource
         LocalDate day = new LocalDate(start);
-        EffortDuration hours = EffortDuration.zero();
         int i = 0;
-        while (i < hoursToAllocatePerDay.length) {
-            hours = EffortDuration
-                    .fromHoursAsBigDecimal(hoursToAllocatePerDay[i]);
-            capacity = calendar.getCapacityOn(PartialDay.wholeDay(day));
-            if (!EffortDuration.zero().equals(capacity)) {
-                allocate(resourceAllocation, day, hours);
+        while (i < secondsToAllocatePerDay.length) {
+            EffortDuration capacity = calendar.getCapacityOn(PartialDay.wholeDay(day));
+            if (!capacity.isZero()) {
+                allocate(resourceAllocation, day,
+                        EffortDuration.seconds(secondsToAllocatePerDay[i]));
                 i++;
             }
             day = day.plusDays(1);
@@ -102,23 +89,60 @@ public class SigmoidFunction extends AssignmentFunction {
         Validate.isTrue(resourceAllocation.getEndDate().equals(previousEndDate));
     }
 
-    private List<BigDecimal> daysWithAllocatedHours(
-            ResourceAllocation<?> resourceAllocation) {
-
-        List<BigDecimal> result = new ArrayList<BigDecimal>();
+    private int daysWithAllocatedHours(ResourceAllocation<?> resourceAllocation) {
+        int result = 0;
         LocalDate day = new LocalDate(resourceAllocation.getStartDate());
         final LocalDate end = resourceAllocation.getEndDate();
 
         while (day.isBefore(end)) {
-            int hoursAllocated = resourceAllocation.getAssignedHours(day, day.plusDays(1));
-            if (hoursAllocated != 0) {
-                result.add(new BigDecimal(hoursAllocated));
+            if (resourceAllocation.getAssignedHours(day, day.plusDays(1)) != 0) {
+                result++;
             }
             day = day.plusDays(1);
         }
         return result;
     }
 
+    /**
+     * Calculates the seconds to allocate for each one of the <code>days</code>
+     * so that <code>totalHours</code> are distributed following a sigmoid
+     * curve. Values are rounded to fragments of a quarter of hour and the
+     * reminder of the rounding is allocated so that the distribution keeps
+     * growing continuously.
+     *
+     * @param days
+     *            number of days with allocated hours
+     * @param totalHours
+     *            hours to distribute
+     * @return the seconds to allocate for each day
+     */
+    public static int[] secondsPerDay(int days, int totalHours) {
+        Validate.isTrue(days >= 0);
+        Validate.isTrue(totalHours >= 0);
+        if (days == 0) {
+            return new int[0];
+        }
+
+        // Calculate hours per day and round values
+        long[] hoursToAllocatePerDay = generateHoursToAllocateFor(days, totalHours);
+        roundValues(hoursToAllocatePerDay, HOUR_FRAGMENTATION);
+
+        // Calculate reminder (difference between totalHours and sum of hours calculated)
+        long totalHoursToAllocate = sum(hoursToAllocatePerDay);
+        assert(totalHoursToAllocate <= totalHours * PRECISSION);
+        long remindingHours = totalHours * PRECISSION - totalHoursToAllocate;
+        allocateRemindingHours(hoursToAllocatePerDay, remindingHours);
+        avoidZeroHoursInDays(hoursToAllocatePerDay);
+
+        int[] result = new int[days];
+        for (int i = 0; i < days; i++) {
+            assert hoursToAllocatePerDay[i] % HOUR_FRAGMENTATION == 0;
+            result[i] = (int) (hoursToAllocatePerDay[i] / HOUR_FRAGMENTATION)
+                    * SECONDS_PER_FRAGMENT;
+        }
+        return result;
+    }
+
     /**
      * Days with zero hours can occur at the beginning days.
      *
@@ -128,40 +152,34 @@ public class SigmoidFunction extends AssignmentFunction {
      *
      * @param hoursToAllocatePerDay
      */
-    private void avoidZeroHoursInDays(BigDecimal[] hoursToAllocatePerDay) {
+    private static void avoidZeroHoursInDays(long[] hoursToAllocatePerDay) {
         int length = hoursToAllocatePerDay.length;
         for (int i = 0; i < length; i++) {
-            BigDecimal hours = hoursToAllocatePerDay[i];
-            if (hours.doubleValue() != 0) {
+            if (hoursToAllocatePerDay[i] != 0) {
                 return;
             }
-            if (i + 1 <= length) {
-                BigDecimal next = hoursToAllocatePerDay[i + 1];
-                hoursToAllocatePerDay[i + 1] = next
-                        .subtract(HOUR_FRAGMENTATION);
-                hoursToAllocatePerDay[i] = hours.add(HOUR_FRAGMENTATION);
+            if (i + 1 < length) {
+                hoursToAllocatePerDay[i + 1] -= HOUR_FRAGMENTATION;
+                hoursToAllocatePerDay[i] += HOUR_FRAGMENTATION;
             }
         }
     }
 
-    private void allocateRemindingHours(BigDecimal[] hoursToAllocatePerDay, BigDecimal remindingHours) {
+    private static void allocateRemindingHours(long[] hoursToAllocatePerDay,
+            long remindingHours) {
         final int length = hoursToAllocatePerDay.length;
 
         // Add reminding hours to best fit in a way that the distribution of
         // hours grows continuously
         for (int i = 0; i < length - 1; i++) {
-            BigDecimal current = hoursToAllocatePerDay[i];
-            BigDecimal next = hoursToAllocatePerDay[i+1];
-
-            if (current.add(remindingHours).compareTo(next) <= 0) {
-                hoursToAllocatePerDay[i] = current.add(remindingHours);
+            if (hoursToAllocatePerDay[i] + remindingHours <= hoursToAllocatePerDay[i + 1]) {
+                hoursToAllocatePerDay[i] += remindingHours;
                 return;
             }
         }
 
         // Add reminding hours to last day
-        BigDecimal lastDay = hoursToAllocatePerDay[length - 1];
-        hoursToAllocatePerDay[length - 1] = lastDay.add(remindingHours);
+        hoursToAllocatePerDay[length - 1] += remindingHours;
     }
 
     private void allocate(ResourceAllocation<?> resourceAllocation,
@@ -171,97 +189,86 @@ public class SigmoidFunction extends AssignmentFunction {
                 .onInterval(day, nextDay).allocate(hours);
     }
 
-    private BigDecimal[] roundValues(BigDecimal[] allocatedHoursPerDay,
-            BigDecimal truncateValue) {
-
-        BigDecimal[] result = new BigDecimal[allocatedHoursPerDay.length];
-        BigDecimal reminder = BigDecimal.ZERO;
-
-        for (int i = 0; i < result.length; i++) {
-            BigDecimal value = allocatedHoursPerDay[i];
-            value = value.add(reminder);
-
-            BigDecimal intPart = intPart(value);
-            BigDecimal decimalPart = decimalPart(value);
-            reminder = calculateReminder(decimalPart, truncateValue);
-            decimalPart = decimalPart.subtract(reminder);
-            result[i] = intPart.add(decimalPart);
+    /**
+     * Truncates each value to a multiple of <code>truncateValue</code>,
+     * carrying the truncated part to the next value.
+     */
+    private static void roundValues(long[] allocatedHoursPerDay,
+            long truncateValue) {
+        long reminder = 0;
+
+        for (int i = 0; i < allocatedHoursPerDay.length; i++) {
+            long value = allocatedHoursPerDay[i] + reminder;
+            long decimalPart = value % PRECISSION;
+            reminder = decimalPart % truncateValue;
+            allocatedHoursPerDay[i] = value - reminder;
         }
-        return result;
-    }
-
-    private BigDecimal calculateReminder(BigDecimal decimalPart,
-            BigDecimal truncateValue) {
-        BigDecimal[] result = decimalPart.divideAndRemainder(truncateValue);
-        return result[1];
-    }
-
-    private BigDecimal intPart(BigDecimal bd) {
-        return BigDecimal.valueOf(bd.intValue());
     }
 
-    private BigDecimal decimalPart(BigDecimal bd) {
-        return bd.subtract(intPart(bd));
-    }
-
-    private BigDecimal sumHoursPerDay(BigDecimal[] hoursPerDay) {
-        BigDecimal result = BigDecimal.ZERO;
-        for (int i = 0; i < hoursPerDay.length; i++) {
-            result = result.add(hoursPerDay[i]);
+    private static long sum(long[] hoursPerDay) {
+        long result = 0;
+        for (long each : hoursPerDay) {
+            result += each;
         }
         return result;
     }
 
-    private BigDecimal[] generateHoursToAllocateFor(int days, int hours) {
-        BigDecimal[] valuesPerDay = generatePointValuesForDays(days);
-        BigDecimal[] acummulatedHoursPerDay = calculateNumberOfAccumulatedHoursForDays(valuesPerDay, hours);
-        BigDecimal[] allocatedHoursPerDay = calculateNumberOfAllocatedHoursForDays(acummulatedHoursPerDay);
-        return allocatedHoursPerDay;
+    private static long[] generateHoursToAllocateFor(int days, int hours) {
+        long[] valuesPerDay = generatePointValuesForDays(days);
+        long[] accumulatedHoursPerDay = calculateNumberOfAccumulatedHoursForDays(
+                valuesPerDay, hours);
+        return calculateNumberOfAllocatedHoursForDays(accumulatedHoursPerDay);
     }
 
-    private BigDecimal[] generatePointValuesForDays(int days) {
-        final BigDecimal dayIntervalConstant = getDayIntervalConstant(days);
+    private static long[] generatePointValuesForDays(int days) {
+        final long dayIntervalConstant = getDayIntervalConstant(days);
 
-        BigDecimal[] result = new BigDecimal[days];
+        long[] result = new long[days];
         for (int i = 0; i < days; i++) {
-            result[i] = BigDecimal.valueOf(-6)
-                .add(dayIntervalConstant.multiply(BigDecimal.valueOf(i)));
+            result[i] = -6 * PRECISSION + dayIntervalConstant * i;
         }
         return result;
     }
 
-    private BigDecimal[] calculateNumberOfAllocatedHoursForDays(BigDecimal[] acummulatedHoursPerDay) {
-        BigDecimal[] result = new BigDecimal[acummulatedHoursPerDay.length];
+    private static long[] calculateNumberOfAllocatedHoursForDays(
+            long[] accumulatedHoursPerDay) {
+        long[] result = new long[accumulatedHoursPerDay.length];
 
-        result[0] = acummulatedHoursPerDay[0];
+        result[0] = accumulatedHoursPerDay[0];
         for (int i = 1; i < result.length; i++) {
-            result[i] = acummulatedHoursPerDay[i].subtract(acummulatedHoursPerDay[i - 1]);
+            result[i] = accumulatedHoursPerDay[i] - accumulatedHoursPerDay[i - 1];
         }
         return result;
     }
 
-    private BigDecimal[] calculateNumberOfAccumulatedHoursForDays(
-            BigDecimal[] dayValues, int totalHours) {
-        BigDecimal[] result = new BigDecimal[dayValues.length];
+    private static long[] calculateNumberOfAccumulatedHoursForDays(
+            long[] dayValues, int totalHours) {
+        long[] result = new long[dayValues.length];
         for (int i = 0; i < dayValues.length; i++) {
             result[i] = calculateNumberOfAccumulatedHoursAtDay(dayValues[i], totalHours);
         }
         return result;
     }
 
-    private BigDecimal calculateNumberOfAccumulatedHoursAtDay(
-            BigDecimal valueAtOneDay, int totalHours) {
-        BigDecimal epow = BigDecimal.valueOf(Math.pow(Math.E, valueAtOneDay
-                .negate().doubleValue()));
-        BigDecimal denominator = BigDecimal.valueOf(1).add(epow);
-        return BigDecimal.valueOf(totalHours).divide(denominator,
-                PRECISSION, ROUND_MODE);
+    private static long calculateNumberOfAccumulatedHoursAtDay(
+            long valueAtOneDay, int totalHours) {
+        double epow = Math.pow(Math.E, -(valueAtOneDay / (double) PRECISSION));
+        return (long) Math.rint(totalHours * (double) PRECISSION / (1 + epow));
     }
 
     // 12 divide by days
-    private BigDecimal getDayIntervalConstant(int days) {
-        return BigDecimal.valueOf(12).divide(BigDecimal.valueOf(days),
-                PRECISSION, ROUND_MODE);
+    private static long getDayIntervalConstant(int days) {
+        return divideRoundingHalfEven(12 * PRECISSION, days);
+    }
+
+    private static long divideRoundingHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long twiceRemainder = 2 * (dividend % divisor);
+        if (twiceRemainder > divisor
+                || (twiceRemainder == divisor && quotient % 2 != 0)) {
+            quotient++;
+        }
+        return quotient;
     }
 
     @Override
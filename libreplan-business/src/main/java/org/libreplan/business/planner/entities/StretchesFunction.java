@@ -55,6 +55,9 @@ public class StretchesFunction extends AssignmentFunction {
 
         private final BigDecimal loadProportion;
 
+        // loadProportion expressed in hundredths, it has always a scale of two
+        private final long loadProportionHundredths;
+
         private boolean consolidated = false;
 
         public static Interval create(BigDecimal loadProportion, LocalDate start, LocalDate end, boolean consolidated) {
@@ -74,6 +77,7 @@ public class StretchesFunction extends AssignmentFunction {
             Validate.notNull(end);
 
             this.loadProportion = loadProportion.setScale(2, RoundingMode.HALF_UP);
+            this.loadProportionHundredths = this.loadProportion.unscaledValue().longValue();
             this.start = start;
             this.end = end;
         }
@@ -119,7 +123,7 @@ public class StretchesFunction extends AssignmentFunction {
         }
 
         public int getHoursFor(int totalHours) {
-            return loadProportion.multiply(new BigDecimal(totalHours)).intValue();
+            return (int) (loadProportionHundredths * totalHours / 100);
         }
 
         public LocalDate getStartFor(LocalDate allocationStart) {
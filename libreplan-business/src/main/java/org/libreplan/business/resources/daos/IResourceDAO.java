@@ -122,4 +122,11 @@ public interface IResourceDAO extends IIntegrationEntityDAO<Resource> {
 
     Number getRowCount();
 
+    /**
+     * Like {@link #findAfterCode(String, int)} but skipping virtual workers, so
+     * pages are taken from the same resources {@link #getRealResources()}
+     * returns
+     */
+    List<Resource> findRealResourcesAfterCode(String code, int maxResults);
+
 }
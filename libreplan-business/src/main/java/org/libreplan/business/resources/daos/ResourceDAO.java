@@ -118,6 +118,23 @@ public class ResourceDAO extends IntegrationEntityDAO<Resource> implements IReso
         return list;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Resource> findRealResourcesAfterCode(String code, int maxResults) {
+        String strQuery = "FROM Resource resource WHERE resource NOT IN (FROM VirtualWorker) ";
+        if ( code != null ) {
+            strQuery += "AND resource.code > :code ";
+        }
+        strQuery += "ORDER BY resource.code";
+
+        Query query = getSession().createQuery(strQuery);
+        if ( code != null ) {
+            query.setParameter("code", code);
+        }
+
+        return query.setMaxResults(maxResults).list();
+    }
+
     @Override
     public void save(Resource resource) {
         if ( resource instanceof Worker || resource instanceof Machine ) {
@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -133,7 +134,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private Set<DayAssignment> dayAssignments = new HashSet<DayAssignment>();
 
-    private Map<LocalDate, List<DayAssignment>> assignmentsByDayCached = null;
+    private AssignmentsTimeline assignmentsTimeline = null;
 
     private Set<ResourcesCostCategoryAssignment> resourcesCostCategoryAssignments =
             new HashSet<ResourcesCostCategoryAssignment>();
@@ -143,26 +144,112 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     private LimitingResourceQueue limitingResourceQueue;
 
     private void clearCachedData() {
-        assignmentsByDayCached = null;
         dayAssignmentsState.clearCachedData();
     }
 
-    private List<DayAssignment> getAssignmentsForDay(LocalDate date) {
-        if ( assignmentsByDayCached == null ) {
-            assignmentsByDayCached = DayAssignment.byDay(getAssignments());
+    private AssignmentsTimeline getAssignmentsTimeline() {
+        if ( assignmentsTimeline == null ) {
+            assignmentsTimeline = new AssignmentsTimeline(getAssignments());
         }
-        List<DayAssignment> list = assignmentsByDayCached.get(date);
-        if ( list == null ){
-            return Collections.emptyList();
+        return assignmentsTimeline;
+    }
+
+    /**
+     * Day assignments of the resource indexed by day. Once built it's kept up
+     * to date when assignments are added or removed, instead of being
+     * recalculated from all the assignments of the resource.
+     */
+    private static class AssignmentsTimeline {
+
+        private final Map<LocalDate, AssignmentsOnDay> byDay = new HashMap<LocalDate, AssignmentsOnDay>();
+
+        AssignmentsTimeline(Collection<? extends DayAssignment> assignments) {
+            for (DayAssignment each : assignments) {
+                add(each);
+            }
+        }
+
+        void add(DayAssignment assignment) {
+            AssignmentsOnDay onDay = byDay.get(assignment.getDay());
+            if ( onDay == null ) {
+                onDay = new AssignmentsOnDay();
+                byDay.put(assignment.getDay(), onDay);
+            }
+            onDay.add(assignment);
+        }
+
+        void remove(DayAssignment assignment) {
+            AssignmentsOnDay onDay = byDay.get(assignment.getDay());
+            if ( onDay != null && onDay.remove(assignment) && onDay.isEmpty() ) {
+                byDay.remove(assignment.getDay());
+            }
+        }
+
+        EffortDuration getAssignedEffort(LocalDate day) {
+            AssignmentsOnDay onDay = byDay.get(day);
+            return onDay == null ? zero() : EffortDuration.seconds(onDay.seconds);
+        }
+
+        EffortDuration getAssignedEffortDiscounting(Map<Long, Set<BaseEntity>> allocations, LocalDate day) {
+            AssignmentsOnDay onDay = byDay.get(day);
+            if ( onDay == null ) {
+                return zero();
+            }
+            if ( allocations.isEmpty() ) {
+                return EffortDuration.seconds(onDay.seconds);
+            }
+            int result = onDay.seconds;
+            for (DayAssignment each : onDay.assignments) {
+                if ( each.belongsToSomeOf(allocations) ) {
+                    result -= each.getDuration().getSeconds();
+                }
+            }
+            return EffortDuration.seconds(result);
+        }
+    }
+
+    private static class AssignmentsOnDay {
+
+        private final List<DayAssignment> assignments = new ArrayList<DayAssignment>(2);
+
+        private int seconds = 0;
+
+        void add(DayAssignment assignment) {
+            assignments.add(assignment);
+            seconds += assignment.getDuration().getSeconds();
+        }
+
+        boolean remove(DayAssignment assignment) {
+            for (int i = 0; i < assignments.size(); i++) {
+                if ( assignments.get(i) == assignment ) {
+                    assignments.remove(i);
+                    seconds -= assignment.getDuration().getSeconds();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return assignments.isEmpty();
         }
-        return list;
     }
 
     private abstract class DayAssignmentsState {
 
         private List<DayAssignment> cachedAssignments;
 
-        abstract List<DayAssignment> calculateAssignments();
+        List<DayAssignment> calculateAssignments() {
+            List<DayAssignment> result = new ArrayList<DayAssignment>();
+            for (DayAssignment each : dayAssignments) {
+                if ( isVisible(each) ) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
+
+        abstract boolean isVisible(DayAssignment assignment);
 
         List<DayAssignment> getAssignments() {
             if ( cachedAssignments != null ) {
@@ -179,15 +266,9 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     private class UsingScenarioManager extends DayAssignmentsState {
 
         @Override
-        List<DayAssignment> calculateAssignments() {
-            List<DayAssignment> result = new ArrayList<DayAssignment>();
+        boolean isVisible(DayAssignment assignment) {
             Scenario current = Registry.getScenarioManager().getCurrent();
-            for (DayAssignment each : dayAssignments) {
-                if ( each.getScenario() != null && each.getScenario().equals(current) ) {
-                    result.add(each);
-                }
-            }
-            return result;
+            return assignment.getScenario() != null && assignment.getScenario().equals(current);
         }
     }
 
@@ -200,14 +281,8 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         }
 
         @Override
-        List<DayAssignment> calculateAssignments() {
-            List<DayAssignment> result = new ArrayList<DayAssignment>();
-            for (DayAssignment each : dayAssignments) {
-                if ( isTransient(each) || each.getScenario().equals(currentScenario) ) {
-                    result.add(each);
-                }
-            }
-            return result;
+        boolean isVisible(DayAssignment assignment) {
+            return isTransient(assignment) || assignment.getScenario().equals(currentScenario);
         }
 
         private boolean isTransient(DayAssignment each) {
@@ -844,34 +919,47 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     }
 
     public EffortDuration getAssignedEffort(LocalDate localDate) {
-        return DayAssignment.sum(getAssignmentsForDay(localDate));
+        return getAssignmentsTimeline().getAssignedEffort(localDate);
     }
 
     public EffortDuration getAssignedDurationDiscounting(
             Map<Long, Set<BaseEntity>> allocationsFromWhichDiscountHours,
             LocalDate day) {
 
-        EffortDuration result = zero();
-        for (DayAssignment dayAssignment : getAssignmentsForDay(day)) {
-
-            if ( !dayAssignment.belongsToSomeOf(allocationsFromWhichDiscountHours) ) {
-                result = result.plus(dayAssignment.getDuration());
-            }
-        }
-        return result;
+        return getAssignmentsTimeline().getAssignedEffortDiscounting(allocationsFromWhichDiscountHours, day);
     }
 
     public void addNewAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.notNull(assignments);
         Validate.noNullElements(assignments);
         clearCachedData();
-        this.dayAssignments.addAll(assignments);
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.add(each) ) {
+                addToTimeline(each);
+            }
+        }
+    }
+
+    private void addToTimeline(DayAssignment assignment) {
+        if ( assignmentsTimeline == null ) {
+            return;
+        }
+        if ( dayAssignmentsState.isVisible(assignment) ) {
+            assignmentsTimeline.add(assignment);
+        } else {
+            // it could become visible later, e.g. when its container is set
+            assignmentsTimeline = null;
+        }
     }
 
     public void removeAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.noNullElements(assignments);
         clearCachedData();
-        this.dayAssignments.removeAll(assignments);
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.remove(each) && assignmentsTimeline != null ) {
+                assignmentsTimeline.remove(each);
+            }
+        }
     }
 
     public List<DayAssignment> getAssignments() {
@@ -880,6 +968,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     public void useScenario(Scenario scenario) {
         dayAssignmentsState = new OnSpecifiedScenario(scenario);
+        assignmentsTimeline = null;
     }
 
     public int getTotalWorkHours(LocalDate start, LocalDate end) {
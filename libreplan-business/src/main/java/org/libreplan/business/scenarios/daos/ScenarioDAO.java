@@ -24,7 +24,9 @@ package org.libreplan.business.scenarios.daos;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.criterion.Restrictions;
@@ -152,20 +154,87 @@ public class ScenarioDAO extends GenericDAOHibernate<Scenario, Long> implements
                     .list();
     }
 
+    /**
+     * Loads the ids of all the scenarios with the id of their predecessor in
+     * one query, and then the scenarios derived from <code>scenario</code>, at
+     * any depth, in another one. The result keeps the order of a traversal
+     * adding first the direct children and then the descendants of each one.
+     */
     @Override
     public List<Scenario> getDerivedScenarios(Scenario scenario) {
+        if (scenario == null || scenario.getId() == null) {
+            return new ArrayList<>();
+        }
+
+        List<Long> derivedIds = new ArrayList<>();
+        addDerivedIds(getChildrenIdsByPredecessorId(), scenario.getId(), derivedIds);
+        if (derivedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Scenario> scenariosById = new HashMap<>();
+        for (Scenario each : findWithOrdersByIds(derivedIds)) {
+            scenariosById.put(each.getId(), each);
+        }
+
         List<Scenario> result = new ArrayList<>();
+        for (Long each : derivedIds) {
+            result.add(scenariosById.get(each));
+        }
 
-        List<Scenario> children = findByPredecessor(scenario);
-        result.addAll(children);
+        return result;
+    }
+
+    private Map<Long, List<Long>> getChildrenIdsByPredecessorId() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> idAndPredecessorIdPairs = getSession()
+                .createQuery("SELECT scenario.id, predecessor.id FROM Scenario scenario "
+                        + "LEFT OUTER JOIN scenario.predecessor predecessor")
+                .list();
 
-        for (Scenario child : children) {
-            result.addAll(getDerivedScenarios(child));
+        Map<Long, List<Long>> result = new HashMap<>();
+        for (Object[] each : idAndPredecessorIdPairs) {
+            Long predecessorId = (Long) each[1];
+            if (predecessorId != null) {
+                if (!result.containsKey(predecessorId)) {
+                    result.put(predecessorId, new ArrayList<Long>());
+                }
+                result.get(predecessorId).add((Long) each[0]);
+            }
         }
 
         return result;
     }
 
+    private static void addDerivedIds(Map<Long, List<Long>> childrenIdsByPredecessorId, Long scenarioId,
+                                      List<Long> result) {
+
+        List<Long> children = childrenIdsByPredecessorId.get(scenarioId);
+        if (children == null) {
+            return;
+        }
+
+        result.addAll(children);
+
+        for (Long child : children) {
+            addDerivedIds(childrenIdsByPredecessorId, child, result);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Scenario> findWithOrdersByIds(Collection<Long> ids) {
+        return getSession()
+                .createQuery("SELECT DISTINCT scenario FROM Scenario scenario "
+                        + "LEFT OUTER JOIN FETCH scenario.orders WHERE scenario.id IN (:ids)")
+                .setParameterList("ids", ids)
+                .list();
+    }
+
+    /**
+     * The derived scenarios are loaded in the current session, so their
+     * changes are written by Hibernate in the next flush together, without
+     * saving and validating them one by one.
+     */
     @Override
     public void updateDerivedScenariosWithNewVersion(
             OrderVersion previousOrderVersion,
@@ -173,14 +242,26 @@ public class ScenarioDAO extends GenericDAOHibernate<Scenario, Long> implements
             Scenario currentScenario,
             OrderVersion newOrderVersion) {
 
+        List<Scenario> scenariosToUpdate = new ArrayList<>();
         for (Scenario each : getDerivedScenarios(currentScenario)) {
             if (each.usesVersion(previousOrderVersion, order)) {
-                if (newOrderVersion == null) {
-                    each.removeOrderVersionForOrder(order);
-                } else {
-                    each.setOrderVersion(order, newOrderVersion);
-                }
-                save(each);
+                scenariosToUpdate.add(each);
+            }
+        }
+
+        if (scenariosToUpdate.isEmpty()) {
+            return;
+        }
+
+        if (newOrderVersion != null && newOrderVersion.isNewObject()) {
+            orderVersionDAO.save(newOrderVersion);
+        }
+
+        for (Scenario each : scenariosToUpdate) {
+            if (newOrderVersion == null) {
+                each.removeOrderVersionForOrder(order);
+            } else {
+                each.setOrderVersion(order, newOrderVersion);
             }
         }
     }
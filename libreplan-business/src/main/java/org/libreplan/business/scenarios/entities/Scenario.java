@@ -177,9 +177,7 @@ public class Scenario extends BaseEntity implements IHumanIdentifiable {
 
     public Scenario newDerivedScenario() {
         Scenario result = new Scenario("Derived from " + name, this);
-        for (Order order : orders.keySet()) {
-            result.addOrder(order, orders.get(order));
-        }
+        result.orders.putAll(orders);
 
         return result;
     }
@@ -74,12 +74,6 @@ public class CriterionRequirementTemplateHandler extends
         orderLineGroup.basicAddCriterionRequirement(criterionRequirement);
     }
 
-    @Override
-    protected List<OrderElementTemplate> getAllChildren(
-            OrderElementTemplate orderElement) {
-        return orderElement.getAllChildren();
-    }
-
     @Override
     protected List<OrderElementTemplate> getChildren(
             OrderElementTemplate orderElement) {
@@ -0,0 +1,125 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 WirelessGalicia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.templates.entities;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Statistics of the {@link OrderElement OrderElements} created from an
+ * {@link OrderElementTemplate}, accumulated in a single pass.<br />
+ *
+ * Estimated hours are taken from all the applications, worked hours only
+ * from the finished ones.
+ */
+public class TemplateHistoricalStatistics {
+
+    private int applications = 0;
+
+    private BigDecimal sumEstimatedHours = BigDecimal.ZERO;
+
+    private BigDecimal maxEstimatedHours = BigDecimal.ZERO;
+
+    private BigDecimal minEstimatedHours = BigDecimal.ZERO;
+
+    private int finishedApplications = 0;
+
+    private EffortDuration sumWorkedHours = EffortDuration.zero();
+
+    private EffortDuration maxWorkedHours = EffortDuration.zero();
+
+    private EffortDuration minWorkedHours = EffortDuration.zero();
+
+    public static TemplateHistoricalStatistics create() {
+        return new TemplateHistoricalStatistics();
+    }
+
+    private TemplateHistoricalStatistics() {
+    }
+
+    /**
+     * @param workedHours
+     *            the effort directly reported for the application if it's
+     *            finished, <code>null</code> otherwise
+     */
+    public void addApplication(BigDecimal estimatedHours, EffortDuration workedHours) {
+        if ( applications == 0 ) {
+            maxEstimatedHours = minEstimatedHours = estimatedHours;
+        } else {
+            maxEstimatedHours = maxEstimatedHours.max(estimatedHours);
+            minEstimatedHours = minEstimatedHours.min(estimatedHours);
+        }
+        sumEstimatedHours = sumEstimatedHours.add(estimatedHours);
+        applications++;
+
+        if ( workedHours != null ) {
+            if ( finishedApplications == 0 ) {
+                maxWorkedHours = minWorkedHours = workedHours;
+            } else {
+                maxWorkedHours = EffortDuration.max(maxWorkedHours, workedHours);
+                minWorkedHours = EffortDuration.min(minWorkedHours, workedHours);
+            }
+            sumWorkedHours = sumWorkedHours.plus(workedHours);
+            finishedApplications++;
+        }
+    }
+
+    public int getApplications() {
+        return applications;
+    }
+
+    public int getFinishedApplications() {
+        return finishedApplications;
+    }
+
+    public BigDecimal getAverageEstimatedHours() {
+        if ( sumEstimatedHours.compareTo(BigDecimal.ZERO) <= 0 ) {
+            return BigDecimal.ZERO;
+        }
+        return sumEstimatedHours.divide(new BigDecimal(applications), new MathContext(2, RoundingMode.HALF_UP));
+    }
+
+    public BigDecimal getMaxEstimatedHours() {
+        return maxEstimatedHours;
+    }
+
+    public BigDecimal getMinEstimatedHours() {
+        return minEstimatedHours;
+    }
+
+    public EffortDuration getAverageWorkedHours() {
+        return finishedApplications == 0
+                ? EffortDuration.zero()
+                : EffortDuration.average(sumWorkedHours, finishedApplications);
+    }
+
+    public EffortDuration getMaxWorkedHours() {
+        return maxWorkedHours;
+    }
+
+    public EffortDuration getMinWorkedHours() {
+        return minWorkedHours;
+    }
+
+}
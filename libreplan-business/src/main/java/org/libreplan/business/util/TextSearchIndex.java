@@ -0,0 +1,209 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Immutable index to find the elements having some text that contains a
+ * given one, ignoring case.
+ * <p>
+ * The positions of the elements are indexed by the trigrams of their texts,
+ * so the candidates for a search are the elements having all the trigrams of
+ * the searched text. Texts shorter than a trigram are searched checking all
+ * the elements.
+ * <p>
+ * Results keep the order in which the elements were given.
+ */
+public class TextSearchIndex<T> {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    public static <T> TextSearchIndex<T> create(Collection<? extends T> elements,
+                                                Function<? super T, List<String>> textsExtractor) {
+        Validate.notNull(elements);
+        Validate.noNullElements(elements);
+        Validate.notNull(textsExtractor);
+
+        return new TextSearchIndex<>(elements, textsExtractor);
+    }
+
+    private final List<T> elements;
+
+    private final String[][] texts;
+
+    private final Map<String, int[]> positionsByGram;
+
+    private TextSearchIndex(Collection<? extends T> elements, Function<? super T, List<String>> textsExtractor) {
+        this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+        this.texts = new String[this.elements.size()][];
+
+        Map<String, PositionsBuilder> builders = new HashMap<>();
+
+        for (int i = 0; i < this.elements.size(); i++) {
+            texts[i] = toLowerCase(textsExtractor.apply(this.elements.get(i)));
+
+            for (String text : texts[i]) {
+                for (int j = 0; j + GRAM_LENGTH <= text.length(); j++) {
+                    String gram = text.substring(j, j + GRAM_LENGTH);
+
+                    PositionsBuilder builder = builders.get(gram);
+                    if ( builder == null ) {
+                        builder = new PositionsBuilder();
+                        builders.put(gram, builder);
+                    }
+                    builder.add(i);
+                }
+            }
+        }
+
+        this.positionsByGram = new HashMap<>(builders.size());
+        for (Map.Entry<String, PositionsBuilder> each : builders.entrySet()) {
+            positionsByGram.put(each.getKey(), each.getValue().build());
+        }
+    }
+
+    private static String[] toLowerCase(List<String> texts) {
+        List<String> result = new ArrayList<>();
+        if ( texts != null ) {
+            for (String each : texts) {
+                if ( each != null ) {
+                    result.add(each.toLowerCase());
+                }
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Positions of the elements containing a gram. As the elements are
+     * indexed in order, they are kept sorted without repetitions.
+     */
+    private static class PositionsBuilder {
+
+        private int[] positions = new int[4];
+
+        private int size = 0;
+
+        void add(int position) {
+            if ( size > 0 && positions[size - 1] == position ) {
+                return;
+            }
+            if ( size == positions.length ) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+    /**
+     * @return all the indexed elements
+     */
+    public List<T> getAll() {
+        return elements;
+    }
+
+    /**
+     * Returns the elements having some text that contains <code>text</code>,
+     * ignoring case and leading and trailing whitespace. If <code>text</code>
+     * is blank all the elements are returned.
+     */
+    public List<T> search(String text) {
+        String searched = text == null ? "" : text.trim().toLowerCase();
+        if ( searched.isEmpty() ) {
+            return elements;
+        }
+
+        List<T> result = new ArrayList<>();
+        if ( searched.length() < GRAM_LENGTH ) {
+            for (int i = 0; i < elements.size(); i++) {
+                addIfMatches(result, i, searched);
+            }
+        } else {
+            for (int position : candidatesFor(searched)) {
+                addIfMatches(result, position, searched);
+            }
+        }
+        return result;
+    }
+
+    private void addIfMatches(List<T> result, int position, String searched) {
+        for (String each : texts[position]) {
+            if ( each.contains(searched) ) {
+                result.add(elements.get(position));
+                return;
+            }
+        }
+    }
+
+    private int[] candidatesFor(String searched) {
+        List<int[]> postings = new ArrayList<>();
+        for (int j = 0; j + GRAM_LENGTH <= searched.length(); j++) {
+            int[] positions = positionsByGram.get(searched.substring(j, j + GRAM_LENGTH));
+            if ( positions == null ) {
+                return NO_POSITIONS;
+            }
+            postings.add(positions);
+        }
+
+        Collections.sort(postings, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = intersection(result, postings.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersection(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if ( a[i] < b[j] ) {
+                i++;
+            } else if ( a[i] > b[j] ) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+}
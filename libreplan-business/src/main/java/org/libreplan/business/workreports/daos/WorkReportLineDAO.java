@@ -29,6 +29,7 @@ import java.util.List;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -95,13 +96,9 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
     @Override
     @Transactional(readOnly=true)
     public List<WorkReportLine> findByOrderElementAndChildren(OrderElement orderElement, boolean sortByDate) {
-        // Create collection with current orderElement and all its children
-        Collection<OrderElement> orderElements = orderElement.getAllChildren();
-        orderElements.add(orderElement);
-
         // Prepare criteria
         final Criteria criteria = getSession().createCriteria(WorkReportLine.class);
-        criteria.add(Restrictions.in("orderElement", orderElements));
+        addOrderElementAndChildrenRestriction(criteria, orderElement);
         if (sortByDate) {
             criteria.addOrder(org.hibernate.criterion.Order.asc("date"));
         }
@@ -224,13 +221,10 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
             return new ArrayList<WorkReportLine>();
         }
 
-        Collection<OrderElement> orderElements = orderElement.getAllChildren();
-        orderElements.add(orderElement);
-
         // Prepare criteria
         final Criteria criteria = getSession().createCriteria(
                 WorkReportLine.class);
-        criteria.add(Restrictions.in("orderElement", orderElements));
+        addOrderElementAndChildrenRestriction(criteria, orderElement);
 
         if (start != null) {
             criteria.add(Restrictions.ge("date", start));
@@ -245,4 +239,24 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
 
     }
 
+    /**
+     * Restricts the lines to the ones of <code>orderElement</code> or any of
+     * its children, using the stored tree path so the children don't need to
+     * be loaded.
+     */
+    private static void addOrderElementAndChildrenRestriction(
+            Criteria criteria, OrderElement orderElement) {
+        String treePath = orderElement.getTreePath();
+        if (treePath == null) {
+            Collection<OrderElement> orderElements = orderElement
+                    .getAllChildren();
+            orderElements.add(orderElement);
+            criteria.add(Restrictions.in("orderElement", orderElements));
+            return;
+        }
+        criteria.createAlias("orderElement", "element");
+        criteria.add(Restrictions.like("element.treePath", treePath,
+                MatchMode.START));
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.hibernate.notification;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link NotBlockingAutoUpdatedSnapshot}.
+ */
+public class NotBlockingAutoUpdatedSnapshotTest {
+
+    private ExecutorService executor;
+
+    private AtomicInteger calculations;
+
+    private CountDownLatch secondCalculationStarted;
+
+    private CountDownLatch finishSecondCalculation;
+
+    private AtomicBoolean secondCalculationInterrupted;
+
+    private NotBlockingAutoUpdatedSnapshot<Integer> snapshot;
+
+    @Before
+    public void givenASnapshotWithASlowSecondCalculation() {
+        executor = Executors.newSingleThreadExecutor();
+        calculations = new AtomicInteger();
+        secondCalculationStarted = new CountDownLatch(1);
+        finishSecondCalculation = new CountDownLatch(1);
+        secondCalculationInterrupted = new AtomicBoolean(false);
+
+        snapshot = new NotBlockingAutoUpdatedSnapshot<>("test", new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int calculation = calculations.incrementAndGet();
+                if ( calculation == 2 ) {
+                    secondCalculationStarted.countDown();
+                    waitUntilFinishIsAllowed();
+                }
+                return calculation;
+            }
+        });
+    }
+
+    private void waitUntilFinishIsAllowed() {
+        while (true) {
+            try {
+                finishSecondCalculation.await();
+                return;
+            } catch (InterruptedException e) {
+                secondCalculationInterrupted.set(true);
+            }
+        }
+    }
+
+    @After
+    public void shutdownExecutor() {
+        finishSecondCalculation.countDown();
+        executor.shutdownNow();
+    }
+
+    private void givenSecondCalculationRunning() throws InterruptedException {
+        snapshot.ensureFirstLoad(executor);
+        assertThat(snapshot.getValue(), equalTo(1));
+
+        snapshot.reloadNeeded(executor);
+        assertTrue(secondCalculationStarted.await(10, TimeUnit.SECONDS));
+    }
+
+    private void waitForAllTheCalculations() throws InterruptedException {
+        finishSecondCalculation.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private void waitForTheSecondCalculation() throws InterruptedException {
+        finishSecondCalculation.countDown();
+        while (snapshot.getValue() != 2) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void theReloadsRequestedWhileOneIsWaitingAreDoneOnce() throws InterruptedException {
+        givenSecondCalculationRunning();
+
+        snapshot.reloadNeeded(executor);
+        snapshot.reloadNeeded(executor);
+        snapshot.reloadNeeded(executor);
+        waitForAllTheCalculations();
+
+        assertThat(calculations.get(), equalTo(3));
+        assertThat(snapshot.getValue(), equalTo(3));
+    }
+
+    @Test
+    public void theRunningCalculationIsNotCancelledByANewReload() throws InterruptedException {
+        givenSecondCalculationRunning();
+
+        snapshot.reloadNeeded(executor);
+        assertThat(snapshot.getValue(), equalTo(1));
+        waitForAllTheCalculations();
+
+        assertFalse(secondCalculationInterrupted.get());
+        assertThat(snapshot.getValue(), equalTo(3));
+    }
+
+    @Test(timeout = 10000)
+    public void aReloadRequestedOnceTheWaitingOneHasStartedIsDoneToo() throws InterruptedException {
+        givenSecondCalculationRunning();
+        waitForTheSecondCalculation();
+
+        snapshot.reloadNeeded(executor);
+        waitForAllTheCalculations();
+
+        assertThat(calculations.get(), equalTo(3));
+        assertThat(snapshot.getValue(), equalTo(3));
+    }
+
+}
@@ -249,6 +249,35 @@ public class AvailabilityTimeLineTest {
         }
     }
 
+    @Test
+    public void combiningTimeLinesWithSeveralInterleavedInvalidPeriods() {
+        AvailabilityTimeLine one = AvailabilityTimeLine.allValid();
+        AvailabilityTimeLine another = AvailabilityTimeLine.allValid();
+        for (int i = 0; i < 20; i++) {
+            LocalDate start = contemporaryExample.plusDays(i * 7);
+            one.invalidAt(start, start.plusDays(3));
+            another.invalidAt(start.plusDays(2));
+            another.invalidAt(start.plusDays(5), start.plusDays(6));
+        }
+        one.invalidUntil(contemporaryExample.minusDays(10));
+        another.invalidFrom(contemporaryExample.plusDays(100));
+
+        AvailabilityTimeLine and = one.and(another);
+        AvailabilityTimeLine or = one.or(another);
+
+        LocalDate current = contemporaryExample.minusDays(20);
+        LocalDate end = contemporaryExample.plusDays(160);
+        while (current.compareTo(end) < 0) {
+            boolean oneValid = one.isValid(current);
+            boolean anotherValid = another.isValid(current);
+            assertEquals("and must be valid for: " + current,
+                    oneValid && anotherValid, and.isValid(current));
+            assertEquals("or must be valid for: " + current,
+                    oneValid || anotherValid, or.isValid(current));
+            current = current.plusDays(1);
+        }
+    }
+
     @Test
     public void doingOROnTwoTimeLinesResultingOnAnAllValidTimeLine() {
         AvailabilityTimeLine one = AvailabilityTimeLine.allValid();
@@ -24,6 +24,7 @@ package org.libreplan.business.test.calendars.entities;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -497,6 +498,22 @@ public class BaseCalendarTest {
         assertThat(derived.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), nullValue());
     }
 
+    @Test
+    public void testGetExceptionDayFromTheParentOfTheParent() {
+        BaseCalendar calendar = createChristmasCalendar();
+        BaseCalendar derived = calendar.newDerivedCalendar().newDerivedCalendar();
+        CalendarException christmasDay = calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE);
+
+        assertThat(derived.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), sameInstance(christmasDay));
+        assertThat(derived.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE.plusDays(1)), nullValue());
+
+        CalendarException redefined = CalendarException.create(
+                CHRISTMAS_DAY_LOCAL_DATE, hours(4), createCalendarExceptionType());
+        derived.getParent().addExceptionDay(redefined);
+
+        assertThat(derived.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), sameInstance(redefined));
+    }
+
     @Test
     public void testSetParent() {
         BaseCalendar calendar = createBasicCalendar();
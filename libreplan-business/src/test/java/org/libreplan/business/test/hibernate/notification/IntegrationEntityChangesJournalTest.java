@@ -0,0 +1,181 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.hibernate.notification;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChanges;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChangesJournal;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChangesJournal.Change;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChangesJournal.ChangeType;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.entities.Machine;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workreports.entities.WorkReport;
+
+/**
+ * Tests for {@link IntegrationEntityChangesJournal}.
+ */
+public class IntegrationEntityChangesJournalTest {
+
+    private IntegrationEntityChangesJournal journal = new IntegrationEntityChangesJournal(
+            10);
+
+    private static Change modified(Class<?> klass, String code) {
+        return new Change(klass, code, ChangeType.MODIFIED);
+    }
+
+    private static Change removed(Class<?> klass, String code) {
+        return new Change(klass, code, ChangeType.REMOVED);
+    }
+
+    private String currentToken() {
+        return journal.changesSince(WorkReport.class, null).getToken();
+    }
+
+    @Test
+    public void withoutTokenTheChangesAreNotComplete() {
+        journal.record(asList(modified(WorkReport.class, "a")));
+        IntegrationEntityChanges changes = journal.changesSince(
+                WorkReport.class, null);
+        assertFalse(changes.isComplete());
+        assertTrue(changes.getModifiedCodes().isEmpty());
+    }
+
+    @Test
+    public void returnsOnlyTheChangesAfterTheToken() {
+        journal.record(asList(modified(WorkReport.class, "a")));
+        String token = currentToken();
+        journal.record(asList(modified(WorkReport.class, "b"),
+                removed(WorkReport.class, "c")));
+
+        IntegrationEntityChanges changes = journal.changesSince(
+                WorkReport.class, token);
+        assertTrue(changes.isComplete());
+        assertThat(changes.getModifiedCodes(),
+                equalTo(Collections.singleton("b")));
+        assertThat(changes.getRemovedCodes(),
+                equalTo(Collections.singleton("c")));
+        assertThat(changes.getToken(), not(equalTo(token)));
+    }
+
+    @Test
+    public void theLastChangeOfEachCodeWins() {
+        String token = currentToken();
+        journal.record(asList(modified(WorkReport.class, "a"),
+                removed(WorkReport.class, "a"), removed(WorkReport.class, "b"),
+                modified(WorkReport.class, "b")));
+
+        IntegrationEntityChanges changes = journal.changesSince(
+                WorkReport.class, token);
+        assertThat(changes.getModifiedCodes(),
+                equalTo(Collections.singleton("b")));
+        assertThat(changes.getRemovedCodes(),
+                equalTo(Collections.singleton("a")));
+    }
+
+    @Test
+    public void subclassesAreIncluded() {
+        String token = currentToken();
+        journal.record(asList(modified(Worker.class, "w"),
+                modified(Machine.class, "m"), modified(WorkReport.class, "r")));
+
+        assertThat(journal.changesSince(Resource.class, token)
+                .getModifiedCodes(), equalTo(new HashSet<String>(asList("w",
+                "m"))));
+        assertThat(journal.changesSince(Worker.class, token)
+                .getModifiedCodes(), equalTo(Collections.singleton("w")));
+    }
+
+    @Test
+    public void tooOldTokensAreNotComplete() {
+        String token = currentToken();
+        for (int i = 0; i < 10; i++) {
+            journal.record(asList(modified(WorkReport.class, "code" + i)));
+        }
+        assertTrue(journal.changesSince(WorkReport.class, token).isComplete());
+
+        journal.record(asList(modified(WorkReport.class, "other")));
+        assertFalse(journal.changesSince(WorkReport.class, token).isComplete());
+    }
+
+    @Test
+    public void unknownTokensAreNotComplete() {
+        assertFalse(journal.changesSince(WorkReport.class, "1-0").isComplete());
+        assertFalse(journal.changesSince(WorkReport.class, "garbage")
+                .isComplete());
+        String token = currentToken();
+        assertFalse(journal.changesSince(WorkReport.class, token + "1")
+                .isComplete());
+    }
+
+    @Test
+    public void aRenameIsTheRemovalOfTheOldCodeAndTheModificationOfTheNew() {
+        String token = currentToken();
+        journal.record(asList(removed(Order.class, "old"),
+                modified(Order.class, "new")));
+
+        IntegrationEntityChanges changes = journal.changesSince(Order.class,
+                token);
+        assertTrue(changes.isComplete());
+        assertThat(changes.getModifiedCodes(),
+                equalTo(Collections.singleton("new")));
+        assertThat(changes.getRemovedCodes(),
+                equalTo(Collections.singleton("old")));
+    }
+
+    @Test
+    public void anUnknownChangeMakesTheRelatedTypesNotComplete() {
+        String token = currentToken();
+        journal.record(asList(modified(Order.class, "a"),
+                Change.unknown(OrderElement.class)));
+
+        assertFalse(journal.changesSince(Order.class, token).isComplete());
+        assertFalse(journal.changesSince(OrderElement.class, token)
+                .isComplete());
+        assertTrue(journal.changesSince(WorkReport.class, token)
+                .isComplete());
+
+        String afterUnknown = currentToken();
+        journal.record(asList(modified(Order.class, "b")));
+        IntegrationEntityChanges changes = journal.changesSince(Order.class,
+                afterUnknown);
+        assertTrue(changes.isComplete());
+        assertThat(changes.getModifiedCodes(),
+                equalTo(Collections.singleton("b")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyUnknownChangesCanLackTheCode() {
+        new Change(Order.class, null, ChangeType.MODIFIED);
+    }
+
+}
@@ -29,6 +29,7 @@ import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Resource;
@@ -150,4 +151,38 @@ public class MaterialDAOTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void testFindMaterialsInCategoryAndSubCategories() {
+        MaterialCategory root = createValidMaterialCategory();
+        MaterialCategory child = createValidMaterialCategory();
+        MaterialCategory grandchild = createValidMaterialCategory();
+        MaterialCategory other = createValidMaterialCategory();
+        root.addSubcategory(child);
+        child.addSubcategory(grandchild);
+        materialCategoryDAO.save(root);
+        materialCategoryDAO.save(other);
+
+        String description = UUID.randomUUID().toString();
+        Material inGrandchild = createValidMaterial();
+        inGrandchild.setDescription(description);
+        inGrandchild.setCategory(grandchild);
+        materialDAO.save(inGrandchild);
+        Material inOther = createValidMaterial();
+        inOther.setDescription(description);
+        inOther.setCategory(other);
+        materialDAO.save(inOther);
+        materialDAO.flush();
+
+        Set<MaterialCategory> subcategories = materialDAO.getAllSubcategories(root);
+        assertEquals(2, subcategories.size());
+        assertTrue(subcategories.contains(child));
+        assertTrue(subcategories.contains(grandchild));
+
+        List<Material> found = materialDAO.findMaterialsInCategoryAndSubCategories(
+                description.substring(4, 20).toUpperCase(), root);
+        assertEquals(1, found.size());
+        assertEquals(inGrandchild, found.get(0));
+    }
+
 }
@@ -35,14 +35,17 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.hibernate.SessionFactory;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,6 +58,8 @@ import org.libreplan.business.advance.exceptions.DuplicateAdvanceAssignmentForOr
 import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalAdvanceException;
 import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.labels.daos.ILabelDAO;
@@ -62,6 +67,7 @@ import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.daos.OrderElementSearchEntry;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderLine;
@@ -124,6 +130,12 @@ public class OrderElementDAOTest {
     @Autowired
     private ICriterionTypeDAO criterionTypeDAO;
 
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
     @Before
     public void loadRequiredData() {
         scenariosBootstrap.loadRequiredData();
@@ -704,4 +716,199 @@ public class OrderElementDAOTest {
         assertEquals(orderLine3.getId(), orderElements.get(0).getId());
     }
 
+    private String storedTreePathOf(OrderElement orderElement) {
+        return (String) sessionFactory.getCurrentSession()
+                .createQuery("SELECT e.treePath FROM OrderElement e WHERE e.id = :id")
+                .setParameter("id", orderElement.getId())
+                .uniqueResult();
+    }
+
+    private static String treePath(OrderElement... fromTheTop) {
+        StringBuilder result = new StringBuilder("/");
+        for (OrderElement each : fromTheTop) {
+            result.append(each.getId()).append("/");
+        }
+
+        return result.toString();
+    }
+
+    @Test
+    @Transactional
+    public void theTreePathOfANewElementIsStored() {
+        OrderLineGroup orderLineGroup = createValidOrderLineGroup();
+        Order order = orderLineGroup.getOrder();
+        OrderElement orderLine = orderLineGroup.getChildren().get(0);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+
+        assertThat(storedTreePathOf(order), equalTo(treePath(order)));
+        assertThat(storedTreePathOf(orderLineGroup), equalTo(treePath(order, orderLineGroup)));
+        assertThat(storedTreePathOf(orderLine), equalTo(treePath(order, orderLineGroup, orderLine)));
+    }
+
+    @Test
+    @Transactional
+    public void movingASubtreeRewritesTheTreePathsBelowIt() throws InstanceNotFoundException {
+        OrderLineGroup moved = createValidOrderLineGroup();
+        Order order = moved.getOrder();
+        OrderLineGroup destination = OrderLineGroup.create();
+        destination.setName(UUID.randomUUID().toString());
+        destination.setCode(UUID.randomUUID().toString());
+        order.add(destination);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+        sessionFactory.getCurrentSession().clear();
+
+        order = (Order) orderElementDAO.find(order.getId());
+        order.useSchedulingDataFor(order.getOrderVersionFor(scenarioManager.getCurrent()));
+        moved = (OrderLineGroup) orderElementDAO.find(moved.getId());
+        destination = (OrderLineGroup) orderElementDAO.find(destination.getId());
+        OrderElement orderLine = moved.getChildren().get(0);
+
+        order.remove(moved);
+        destination.add(moved);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+        sessionFactory.getCurrentSession().clear();
+
+        assertThat(storedTreePathOf(moved), equalTo(treePath(order, destination, moved)));
+        assertThat(storedTreePathOf(orderLine), equalTo(treePath(order, destination, moved, orderLine)));
+    }
+
+    @Test
+    @Transactional
+    public void theStoredTreePathsMatchTheParents() {
+        orderElementDAO.save(createValidOrderLineGroup().getOrder());
+        orderElementDAO.flush();
+
+        for (OrderElement each : orderElementDAO.getAll()) {
+            assertThat(storedTreePathOf(each), equalTo(each.getTreePath()));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void theSearchEntriesHaveTheTextsOfTheElementAndItsOrder() {
+        OrderLineGroup orderLineGroup = createValidOrderLineGroup();
+        Order order = orderLineGroup.getOrder();
+        OrderElement orderLine = orderLineGroup.getChildren().get(0);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+
+        Map<Long, OrderElementSearchEntry> entriesById = new HashMap<>();
+        for (OrderElementSearchEntry each : orderElementDAO.getSearchEntries()) {
+            entriesById.put(each.getId(), each);
+        }
+
+        for (OrderElement each : Arrays.asList(order, orderLineGroup, orderLine)) {
+            OrderElementSearchEntry entry = entriesById.get(each.getId());
+            assertThat(entry.getTexts(), equalTo(Arrays.asList(
+                    each.getCode(), each.getName(), order.getCode(), order.getName())));
+        }
+    }
+
+    private Order givenOrderStoredWithLineCodes(final String... codes) {
+        return transactionService.runOnAnotherTransaction(new IOnTransaction<Order>() {
+            @Override
+            public Order execute() {
+                Order order = createValidOrder();
+                for (String each : codes) {
+                    order.add(createStandAloneLine(UUID.randomUUID().toString(), each));
+                }
+                orderElementDAO.save(order);
+                orderElementDAO.flush();
+                return order;
+            }
+        });
+    }
+
+    private static boolean isRejectedForItsCodeOnValidate(OrderElement orderElement) {
+        try {
+            orderElement.validate();
+            return false;
+        } catch (ValidationException e) {
+            for (ValidationException.InvalidValue each : e.getInvalidValues()) {
+                if ( "code is already used in another project".equals(each.getMessage()) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Test
+    @Transactional
+    public void anElementReusingTheCodeOfAnotherOrderIsRejectedOnValidate() {
+        String code = UUID.randomUUID().toString();
+        givenOrderStoredWithLineCodes(code);
+
+        Order order = createValidOrder();
+        order.add(createStandAloneLine(UUID.randomUUID().toString(), code));
+
+        assertTrue(isRejectedForItsCodeOnValidate(order));
+    }
+
+    @Test
+    @Transactional
+    public void theSavedCodesOfAnOrderAreNotUsedInAnotherOrder() {
+        final Order stored = givenOrderStoredWithLineCodes(
+                UUID.randomUUID().toString(), UUID.randomUUID().toString());
+
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                Order order = (Order) orderElementDAO.findExistingEntity(stored.getId());
+
+                assertTrue(orderElementDAO.findCodesUsedInAnotherOrderAnotherTransaction(order).isEmpty());
+                assertFalse(isRejectedForItsCodeOnValidate(order));
+                return null;
+            }
+        });
+    }
+
+    @Test
+    @Transactional
+    public void theCodesUsedInAnotherOrderAreFoundInEveryChunkOfCodes() {
+        String first = UUID.randomUUID().toString();
+        String last = UUID.randomUUID().toString();
+        givenOrderStoredWithLineCodes(first, last);
+
+        // More than the 1000 codes checked by query, last is in the second chunk
+        Order order = createValidOrder();
+        order.add(createStandAloneLine(UUID.randomUUID().toString(), first));
+        for (int i = 0; i < 1100; i++) {
+            order.add(createStandAloneLine());
+        }
+        order.add(createStandAloneLine(UUID.randomUUID().toString(), last));
+
+        Set<String> usedInAnotherOrder = new HashSet<>(Arrays.asList(first, last));
+        assertThat(orderElementDAO.findCodesUsedInAnotherOrderAnotherTransaction(order), equalTo(usedInAnotherOrder));
+        assertTrue(isRejectedForItsCodeOnValidate(order));
+    }
+
+    @Test
+    @Transactional
+    public void anElementValidatedOutsideItsOrderIsCheckedWithItsOwnQuery() {
+        final String code = UUID.randomUUID().toString();
+        givenOrderStoredWithLineCodes(code);
+
+        Order order = createValidOrder();
+        OrderLine orderLine = createStandAloneLine(UUID.randomUUID().toString(), code);
+        order.add(orderLine);
+
+        assertTrue(isRejectedForItsCodeOnValidate(orderLine));
+
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    assertFalse(isRejectedForItsCodeOnValidate(orderElementDAO.findUniqueByCode(code)));
+                    return null;
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
 }
@@ -0,0 +1,242 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 WirelessGalicia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.daos;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.expensesheet.daos.IExpenseSheetDAO;
+import org.libreplan.business.expensesheet.entities.ExpenseSheet;
+import org.libreplan.business.expensesheet.entities.ExpenseSheetLine;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.ISumExpensesDAO;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.orders.entities.SumExpenses;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test for {@link ISumExpensesDAO}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class SumExpensesDAOTest {
+
+    @Before
+    public void loadRequiredData() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                scenariosBootstrap.loadRequiredData();
+                return null;
+            }
+        });
+    }
+
+    @Autowired
+    private ISumExpensesDAO sumExpensesDAO;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IExpenseSheetDAO expenseSheetDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private Order createValidOrder() {
+        Order order = Order.create();
+        order.setName("order-" + UUID.randomUUID());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        BaseCalendar basicCalendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(basicCalendar);
+        order.setCalendar(basicCalendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        order.useSchedulingDataFor(orderVersion);
+        return order;
+    }
+
+    private OrderLineGroup createGroup(OrderLineGroup parent) {
+        OrderLineGroup group = OrderLineGroup.create();
+        group.setCode("group-" + UUID.randomUUID());
+        group.setName("group-" + UUID.randomUUID());
+        parent.add(group);
+        return group;
+    }
+
+    private OrderLine createLine(OrderLineGroup parent) {
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(100);
+        line.setCode("line-" + UUID.randomUUID());
+        line.setName("line-" + UUID.randomUUID());
+        line.getHoursGroups().get(0).setCode("hours-group-" + UUID.randomUUID());
+        parent.add(line);
+        return line;
+    }
+
+    private void addExpense(ExpenseSheet expenseSheet, OrderElement orderElement, BigDecimal value) {
+        ExpenseSheetLine line = ExpenseSheetLine.create(value, "concept", new LocalDate(), orderElement);
+        line.setCode("expense-sheet-line-" + UUID.randomUUID());
+        line.setExpenseSheet(expenseSheet);
+        expenseSheet.add(line);
+    }
+
+    /**
+     * Creates an order with <code>groups</code> groups of two lines, with an
+     * expense of 10 in every line.
+     */
+    private Order givenOrderWithExpenses(int groups) {
+        Order order = createValidOrder();
+        ExpenseSheet expenseSheet = ExpenseSheet.create();
+        expenseSheet.setCode("expense-sheet-" + UUID.randomUUID());
+
+        for (int i = 0; i < groups; i++) {
+            OrderLineGroup group = createGroup(order);
+            addExpense(expenseSheet, createLine(group), BigDecimal.TEN);
+            addExpense(expenseSheet, createLine(group), BigDecimal.TEN);
+        }
+        orderDAO.save(order);
+        orderDAO.flush();
+
+        expenseSheet.updateCalculatedProperties();
+        expenseSheetDAO.save(expenseSheet);
+        expenseSheetDAO.flush();
+
+        return order;
+    }
+
+    private long preparedStatements(IOnTransaction<?> operation) {
+        sessionFactory.getCurrentSession().clear();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            operation.execute();
+            sessionFactory.getCurrentSession().flush();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+
+    /**
+     * Statements run to recalculate the expenses of <code>order</code> apart
+     * from the ones loading the order, which already loads all its elements.
+     * It's recalculated once before, so the {@link SumExpenses} already exist
+     * and the inserts aren't counted.
+     */
+    private long statementsToRecalculate(Order order) {
+        final Long orderId = order.getId();
+        sumExpensesDAO.recalculateSumExpenses(orderId);
+        sumExpensesDAO.flush();
+
+        long toLoad = preparedStatements(new IOnTransaction<Order>() {
+            @Override
+            public Order execute() {
+                return orderDAO.findExistingEntity(orderId);
+            }
+        });
+        long toLoadAndRecalculate = preparedStatements(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                sumExpensesDAO.recalculateSumExpenses(orderId);
+                return null;
+            }
+        });
+
+        return toLoadAndRecalculate - toLoad;
+    }
+
+    private BigDecimal directExpenses(OrderElement orderElement) {
+        return sumExpensesDAO.findByOrderElement(orderElement).getTotalDirectExpenses();
+    }
+
+    private BigDecimal indirectExpenses(OrderElement orderElement) {
+        return sumExpensesDAO.findByOrderElement(orderElement).getTotalIndirectExpenses();
+    }
+
+    @Test
+    @Transactional
+    public void recalculationRollsUpTheExpensesOfTheChildren() {
+        Order order = givenOrderWithExpenses(2);
+        sumExpensesDAO.recalculateSumExpenses(order.getId());
+        sumExpensesDAO.flush();
+
+        OrderElement group = order.getChildren().get(0);
+        OrderElement line = group.getChildren().get(0);
+
+        assertThat(directExpenses(line).compareTo(BigDecimal.TEN), equalTo(0));
+        assertThat(indirectExpenses(line).compareTo(BigDecimal.ZERO), equalTo(0));
+        assertThat(directExpenses(group).compareTo(BigDecimal.ZERO), equalTo(0));
+        assertThat(indirectExpenses(group).compareTo(new BigDecimal(20)), equalTo(0));
+        assertThat(indirectExpenses(order).compareTo(new BigDecimal(40)), equalTo(0));
+    }
+
+    @Test
+    @Transactional
+    public void theStatementsToRecalculateDoNotDependOnTheSizeOfTheOrder() {
+        long statementsForSmallOrder = statementsToRecalculate(givenOrderWithExpenses(1));
+        long statementsForBigOrder = statementsToRecalculate(givenOrderWithExpenses(20));
+
+        assertThat(statementsForBigOrder, equalTo(statementsForSmallOrder));
+    }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.requirements.entities.CriterionRequirement;
+import org.libreplan.business.requirements.entities.DirectCriterionRequirement;
+import org.libreplan.business.requirements.entities.IndirectCriterionRequirement;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionType;
+import org.libreplan.business.resources.entities.ResourceEnum;
+import org.libreplan.business.test.planner.entities.TaskTest;
+
+/**
+ * Checks that the criterion requirements of an order tree modified step by
+ * step are the same ones that a full propagation from the root gives.
+ */
+public class CriterionRequirementPropagationTest {
+
+    private static final int OPERATIONS = 300;
+
+    private Random random;
+
+    private List<Criterion> criteria;
+
+    private OrderLineGroup root;
+
+    private int created;
+
+    @Before
+    public void setUp() {
+        random = new Random(42);
+        criteria = new ArrayList<>();
+        CriterionType type = CriterionType.create("type", "", false, true, true, ResourceEnum.WORKER);
+        for (int i = 0; i < 6; i++) {
+            criteria.add(Criterion.create("criterion-" + i, type));
+        }
+        root = createGroup();
+    }
+
+    private OrderLineGroup createGroup() {
+        OrderLineGroup result = OrderLineGroup.create();
+        result.useSchedulingDataFor(TaskTest.mockOrderVersion());
+        result.setName("element-" + created++);
+        return result;
+    }
+
+    private OrderLine createLine() {
+        OrderLine result = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        result.setName("element-" + created++);
+        return result;
+    }
+
+    private List<OrderElement> allElements() {
+        List<OrderElement> result = new ArrayList<>();
+        result.add(root);
+        result.addAll(root.getAllChildren());
+        return result;
+    }
+
+    private List<OrderLineGroup> allGroups() {
+        List<OrderLineGroup> result = new ArrayList<>();
+        for (OrderElement each : allElements()) {
+            if (each instanceof OrderLineGroup) {
+                result.add((OrderLineGroup) each);
+            }
+        }
+        return result;
+    }
+
+    private <T> T pick(List<T> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    private void addNewElement() {
+        OrderElement element = random.nextInt(3) == 0 ? createGroup() : createLine();
+        if (random.nextBoolean()) {
+            addDirectRequirementIfPossible(element);
+        }
+        pick(allGroups()).add(element);
+    }
+
+    private void addDirectRequirementIfPossible(OrderElement element) {
+        DirectCriterionRequirement requirement = DirectCriterionRequirement.create(pick(criteria));
+        boolean expected = !criterionIsUsedInSubtree(element, requirement.getCriterion());
+
+        assertThat(element.canAddCriterionRequirement(requirement), equalTo(expected));
+        if (expected) {
+            element.addDirectCriterionRequirement(requirement);
+        }
+    }
+
+    private boolean criterionIsUsedInSubtree(OrderElement element, Criterion criterion) {
+        List<OrderElement> subtree = element.getAllChildren();
+        subtree.add(element);
+        for (OrderElement each : subtree) {
+            if (usesCriterion(each.getCriterionRequirements(), criterion)) {
+                return true;
+            }
+            for (HoursGroup hoursGroup : each.getHoursGroups()) {
+                if (usesCriterion(hoursGroup.getCriterionRequirements(), criterion)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean usesCriterion(Iterable<CriterionRequirement> requirements, Criterion criterion) {
+        for (CriterionRequirement each : requirements) {
+            if (each.getCriterion().equals(criterion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void moveElement() {
+        List<OrderElement> candidates = root.getAllChildren();
+        if (candidates.isEmpty()) {
+            return;
+        }
+        OrderElement element = pick(candidates);
+        List<OrderLineGroup> destinations = allGroups();
+        destinations.removeAll(element.getAllChildren());
+        destinations.remove(element);
+
+        element.getParent().remove(element);
+        pick(destinations).add(element);
+    }
+
+    private void removeDirectRequirement() {
+        OrderElement element = pick(allElements());
+        List<DirectCriterionRequirement> directs = new ArrayList<>(element.getDirectCriterionRequirement());
+        if (!directs.isEmpty()) {
+            element.removeDirectCriterionRequirement(pick(directs));
+        }
+    }
+
+    private void invalidateIndirectRequirement() {
+        OrderElement element = pick(allElements());
+        List<IndirectCriterionRequirement> indirects = new ArrayList<>(element.getIndirectCriterionRequirement());
+        if (!indirects.isEmpty()) {
+            element.setValidCriterionRequirement(pick(indirects), random.nextBoolean());
+        }
+    }
+
+    private void doRandomOperation() {
+        switch (random.nextInt(6)) {
+        case 0:
+        case 1:
+            addNewElement();
+            break;
+        case 2:
+            addDirectRequirementIfPossible(pick(allElements()));
+            break;
+        case 3:
+            moveElement();
+            break;
+        case 4:
+            removeDirectRequirement();
+            break;
+        default:
+            invalidateIndirectRequirement();
+            break;
+        }
+    }
+
+    private List<String> describeTree() {
+        List<String> result = new ArrayList<>();
+        for (OrderElement each : allElements()) {
+            result.add(each.getName() + " " + describe(each.getCriterionRequirements()));
+            for (HoursGroup hoursGroup : each.getHoursGroups()) {
+                if (hoursGroup.getParentOrderLine() == each) {
+                    result.add(each.getName() + " hours group " + describe(hoursGroup.getCriterionRequirements()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<String> describe(Iterable<CriterionRequirement> requirements) {
+        List<String> result = new ArrayList<>();
+        for (CriterionRequirement each : requirements) {
+            if (each instanceof IndirectCriterionRequirement) {
+                IndirectCriterionRequirement indirect = (IndirectCriterionRequirement) each;
+                result.add("indirect " + each.getCriterion().getName() + " from "
+                        + indirect.getParent().getOrderElement().getName() + " valid " + indirect.isValid());
+            } else {
+                result.add("direct " + each.getCriterion().getName());
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    public void requirementsAfterEachChangeAreTheOnesOfAFullPropagation() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            doRandomOperation();
+
+            List<String> afterOperation = describeTree();
+            root.updateCriterionRequirements();
+            assertThat("operation " + i, describeTree(), equalTo(afterOperation));
+        }
+    }
+
+    @Test
+    public void aCriterionUsedInADescendantCanNotBeAddedToAnAncestor() {
+        OrderLineGroup group = createGroup();
+        root.add(group);
+        OrderLine line = createLine();
+        group.add(line);
+        line.addDirectCriterionRequirement(DirectCriterionRequirement.create(criteria.get(0)));
+
+        assertThat(root.canAddCriterionRequirement(DirectCriterionRequirement.create(criteria.get(0))),
+                equalTo(false));
+        assertThat(root.canAddCriterionRequirement(DirectCriterionRequirement.create(criteria.get(1))),
+                equalTo(true));
+    }
+
+}
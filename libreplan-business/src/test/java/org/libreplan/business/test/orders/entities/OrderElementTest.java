@@ -24,6 +24,7 @@ package org.libreplan.business.test.orders.entities;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -77,6 +78,7 @@ import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.test.planner.entities.TaskTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -1099,4 +1101,49 @@ public class OrderElementTest {
         assertThat(group.getBudget(), equalTo(new BigDecimal(120).setScale(2)));
     }
 
+    private static void givenSaved(OrderElement orderElement, long id) {
+        ReflectionTestUtils.setField(orderElement, "id", id);
+    }
+
+    @Test
+    @Transactional
+    public void theTreePathHasTheIdsFromTheTopElement() {
+        OrderLineGroup orderLineGroup = givenOrderLineGroupWithTwoOrderLines(1000, 2000);
+        OrderElement orderLine = orderLineGroup.getChildren().get(0);
+
+        assertNull(orderLineGroup.getTreePath());
+        assertNull(orderLine.getTreePath());
+
+        givenSaved(orderLine, 7L);
+        assertNull(orderLine.getTreePath());
+
+        givenSaved(orderLineGroup, 3L);
+        assertThat(orderLineGroup.getTreePath(), equalTo("/3/"));
+        assertThat(orderLine.getTreePath(), equalTo("/3/7/"));
+    }
+
+    @Test
+    @Transactional
+    public void theTreePathsOfAMovedSubtreeFollowItsNewParent() {
+        OrderLineGroup from = OrderLineGroup.create();
+        from.useSchedulingDataFor(mockedOrderVersion);
+        OrderLineGroup moved = givenOrderLineGroupWithTwoOrderLines(1000, 2000);
+        from.add(moved);
+        OrderLineGroup to = givenOrderLineGroupWithOneOrderLine(mockedOrderVersion, 500);
+
+        givenSaved(from, 1L);
+        givenSaved(to, 2L);
+        givenSaved(moved, 3L);
+        givenSaved(moved.getChildren().get(0), 4L);
+        givenSaved(moved.getChildren().get(1), 5L);
+        assertThat(moved.getChildren().get(1).getTreePath(), equalTo("/1/3/5/"));
+
+        from.remove(moved);
+        to.add(moved);
+
+        assertThat(moved.getTreePath(), equalTo("/2/3/"));
+        assertThat(moved.getChildren().get(0).getTreePath(), equalTo("/2/3/4/"));
+        assertThat(moved.getChildren().get(1).getTreePath(), equalTo("/2/3/5/"));
+    }
+
 }
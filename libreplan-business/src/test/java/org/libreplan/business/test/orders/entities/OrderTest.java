@@ -89,4 +89,23 @@ public class OrderTest {
             assertThat(container.getChildren().get(i), equalTo((OrderElement) created[i]));
         }
     }
+
+    @Test
+    @Transactional
+    public void testUniqueCodeInsideOrderConstraint() {
+        Order order = Order.create();
+        order.useSchedulingDataFor(mockedOrderVersion);
+        order.setCode("order");
+        OrderLine[] created = new OrderLine[1000];
+
+        for (int i = 0; i < created.length; i++) {
+            created[i] = OrderLine.create();
+            created[i].setCode("order-" + i);
+            order.add(created[i]);
+        }
+        assertThat(order.isUniqueCodeInsideOrderConstraint(), equalTo(true));
+
+        created[created.length - 1].setCode("order-0");
+        assertThat(order.isUniqueCodeInsideOrderConstraint(), equalTo(false));
+    }
 }
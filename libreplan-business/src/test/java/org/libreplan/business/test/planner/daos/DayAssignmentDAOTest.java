@@ -0,0 +1,203 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.daos;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest.setupVersionUsing;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.orders.daos.IHoursGroupDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO.IEffortVisitor;
+import org.libreplan.business.planner.daos.IResourceAllocationDAO;
+import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tests for {@link IDayAssignmentDAO}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class DayAssignmentDAOTest {
+
+    @Autowired
+    private IDayAssignmentDAO dayAssignmentDAO;
+
+    @Autowired
+    private IResourceAllocationDAO resourceAllocationDAO;
+
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
+    @Autowired
+    private IHoursGroupDAO hoursGroupDAO;
+
+    @Autowired
+    private ITaskSourceDAO taskSourceDAO;
+
+    @Autowired
+    private IResourceDAO resourceDAO;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    private LocalDate start = new LocalDate(2012, 6, 4);
+
+    @Before
+    public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
+    }
+
+    private Task createTask(int days) {
+        Order order = new Order();
+        order.setInitDate(new Date());
+        OrderVersion orderVersion = setupVersionUsing(scenarioManager, order);
+        order.useSchedulingDataFor(orderVersion);
+        OrderLine orderLine = OrderLine.create();
+        order.add(orderLine);
+        orderLine.setName(UUID.randomUUID().toString());
+        orderLine.setCode(UUID.randomUUID().toString());
+        orderLine.useSchedulingDataFor(orderVersion);
+        orderElementDAO.save(orderLine);
+
+        HoursGroup hoursGroup = HoursGroup.create(orderLine);
+        hoursGroup.setCode(UUID.randomUUID().toString());
+        hoursGroupDAO.save(hoursGroup);
+
+        TaskSource taskSource = TaskSource.create(
+                orderLine.getCurrentSchedulingDataForVersion(), Arrays.asList(hoursGroup));
+        TaskSource.mustAdd(taskSource).apply(TaskSource.persistTaskSources(taskSourceDAO));
+
+        Task result = (Task) taskSource.getTask();
+        result.setStartDate(start.toDateTimeAtStartOfDay().toDate());
+        result.setEndDate(start.plusDays(days).toDateTimeAtStartOfDay().toDate());
+        return result;
+    }
+
+    private Worker createWorker() {
+        Worker result = Worker.create();
+        result.setFirstName(UUID.randomUUID().toString());
+        result.setSurname(UUID.randomUUID().toString());
+        result.setNif(UUID.randomUUID().toString());
+        resourceDAO.save(result);
+        return result;
+    }
+
+    private void givenAllocation(Worker worker, int days, int resourcesPerDay) {
+        SpecificResourceAllocation allocation =
+                SpecificResourceAllocation.createForTesting(ResourcesPerDay.amount(1), createTask(days));
+        allocation.setResource(worker);
+        allocation.switchToScenario(scenarioManager.getCurrent());
+        allocation.allocate(ResourcesPerDay.amount(resourcesPerDay));
+        resourceAllocationDAO.save(allocation);
+    }
+
+    private static String key(Long resourceId, LocalDate day) {
+        return resourceId + " " + day;
+    }
+
+    private Map<String, EffortDuration> visitedEffortByResourceAndDay(LocalDate init, LocalDate end) {
+        final Map<String, EffortDuration> result = new HashMap<>();
+        dayAssignmentDAO.visitEffortFor(scenarioManager.getCurrent(), init, end, new IEffortVisitor() {
+            @Override
+            public void visit(Long resourceId, LocalDate day, EffortDuration effort) {
+                add(result, key(resourceId, day), effort);
+            }
+        });
+        return result;
+    }
+
+    private Map<String, EffortDuration> listedEffortByResourceAndDay(LocalDate init, LocalDate end) {
+        Scenario current = scenarioManager.getCurrent();
+        Map<String, EffortDuration> result = new HashMap<>();
+        for (DayAssignment each : DayAssignment.withScenario(current, dayAssignmentDAO.listFilteredByDate(init, end))) {
+            add(result, key(each.getResource().getId(), each.getDay()), each.getDuration());
+        }
+        return result;
+    }
+
+    private static void add(Map<String, EffortDuration> efforts, String key, EffortDuration effort) {
+        EffortDuration previous = efforts.get(key);
+        efforts.put(key, previous == null ? effort : previous.plus(effort));
+    }
+
+    @Test
+    @Transactional
+    public void theVisitedEffortIsTheSumOfTheListedAssignments() {
+        Worker worker = createWorker();
+        givenAllocation(worker, 5, 1);
+        givenAllocation(worker, 3, 1);
+        givenAllocation(createWorker(), 4, 2);
+        dayAssignmentDAO.flush();
+
+        Map<String, EffortDuration> listed = listedEffortByResourceAndDay(null, null);
+        assertFalse(listed.isEmpty());
+        assertThat(visitedEffortByResourceAndDay(null, null), equalTo(listed));
+    }
+
+    @Test
+    @Transactional
+    public void theVisitedEffortIsFilteredByDate() {
+        givenAllocation(createWorker(), 5, 1);
+        dayAssignmentDAO.flush();
+
+        LocalDate init = start.plusDays(1);
+        LocalDate end = start.plusDays(3);
+        assertThat(visitedEffortByResourceAndDay(init, end), equalTo(listedEffortByResourceAndDay(init, end)));
+        assertThat(visitedEffortByResourceAndDay(init, null), equalTo(listedEffortByResourceAndDay(init, null)));
+        assertThat(visitedEffortByResourceAndDay(null, end), equalTo(listedEffortByResourceAndDay(null, end)));
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.min;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.AssignedEffortForResource.IAssignedEffortForResource;
+import org.libreplan.business.planner.entities.EffortDistributor;
+import org.libreplan.business.planner.entities.EffortDistributor.IResourceSelector;
+import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAssignedDuration;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Checks the order in which {@link EffortDistributor} picks the resources
+ * against a straightforward implementation that sorts all the resources for
+ * each day: the ones already picked first, then the ones with more available
+ * effort, keeping the original order for ties.
+ */
+public class EffortDistributorTest {
+
+    private static final LocalDate START = new LocalDate(2012, 6, 4);
+
+    private static final EffortDuration CAPACITY = hours(8);
+
+    private List<Resource> workers;
+
+    private Map<Resource, Map<LocalDate, EffortDuration>> assigned;
+
+    private IAssignedEffortForResource assignedEffort;
+
+    /**
+     * Odd workers can only be picked on even days, so the resources
+     * assignable change from one day to the next.
+     */
+    private IResourceSelector selector;
+
+    @Before
+    public void setUp() {
+        workers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            workers.add(Worker.create("worker", "" + i, "nif" + i));
+        }
+        assigned = new HashMap<>();
+        assignedEffort = new IAssignedEffortForResource() {
+            @Override
+            public EffortDuration getAssignedDurationAt(Resource resource, LocalDate day) {
+                return assignedAt(resource, day);
+            }
+        };
+        selector = new IResourceSelector() {
+            @Override
+            public boolean isSelectable(Resource resource, LocalDate day) {
+                return workers.indexOf(resource) % 2 == 0 || day.getDayOfMonth() % 2 == 0;
+            }
+        };
+    }
+
+    private EffortDuration assignedAt(Resource resource, LocalDate day) {
+        Map<LocalDate, EffortDuration> byDay = assigned.get(resource);
+        EffortDuration result = byDay != null ? byDay.get(day) : null;
+        return result != null ? result : EffortDuration.zero();
+    }
+
+    private void givenAssigned(Resource resource, LocalDate day, EffortDuration effort) {
+        if ( !assigned.containsKey(resource) ) {
+            assigned.put(resource, new HashMap<LocalDate, EffortDuration>());
+        }
+        assigned.get(resource).put(day, effort);
+    }
+
+    /**
+     * The distribution without overtime as it was done sorting all the
+     * resources for each day.
+     */
+    private static class SortingAllResources {
+
+        private final List<Resource> resources;
+
+        private final IAssignedEffortForResource assignedEffort;
+
+        private final IResourceSelector selector;
+
+        private final Set<Resource> alreadyPicked = new HashSet<>();
+
+        SortingAllResources(List<Resource> resources, IAssignedEffortForResource assignedEffort,
+                            IResourceSelector selector) {
+            this.resources = resources;
+            this.assignedEffort = assignedEffort;
+            this.selector = selector;
+        }
+
+        List<String> distributeForDay(LocalDate day, EffortDuration total) {
+            final Map<Resource, EffortDuration> available = new HashMap<>();
+            List<Resource> sorted = new ArrayList<>();
+            for (Resource each : resources) {
+                if ( selector.isSelectable(each, day) ) {
+                    EffortDuration assigned = assignedEffort.getAssignedDurationAt(each, day);
+                    available.put(each, CAPACITY.minus(min(assigned, CAPACITY)));
+                    sorted.add(each);
+                }
+            }
+            Collections.sort(sorted, new Comparator<Resource>() {
+                @Override
+                public int compare(Resource o1, Resource o2) {
+                    int picked = Boolean.compare(alreadyPicked.contains(o2), alreadyPicked.contains(o1));
+                    return picked != 0 ? picked : available.get(o2).compareTo(available.get(o1));
+                }
+            });
+
+            List<String> result = new ArrayList<>();
+            EffortDuration remaining = total;
+            for (Resource each : sorted) {
+                EffortDuration duration = min(remaining, available.get(each));
+                if ( !duration.isZero() ) {
+                    result.add(describe(each, duration));
+                    alreadyPicked.add(each);
+                    remaining = remaining.minus(duration);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static String describe(Resource resource, EffortDuration duration) {
+        return resource.getShortDescription() + " " + duration;
+    }
+
+    private static List<String> describe(List<ResourceWithAssignedDuration> distribution) {
+        List<String> result = new ArrayList<>();
+        for (ResourceWithAssignedDuration each : distribution) {
+            result.add(describe(each.resource, each.duration));
+        }
+        return result;
+    }
+
+    private void assertSameDistribution(EffortDistributor distributor, SortingAllResources expected,
+                                        LocalDate day, EffortDuration total) {
+        List<String> expectedDistribution = expected.distributeForDay(day, total);
+        assertThat(day + " " + total, describe(distributor.distributeForDay(PartialDay.wholeDay(day), total)),
+                equalTo(expectedDistribution));
+    }
+
+    @Test
+    public void resourcesWithTheSameAvailableEffortArePickedInTheirOriginalOrder() {
+        EffortDistributor distributor = new EffortDistributor(workers, assignedEffort);
+        SortingAllResources expected = new SortingAllResources(workers, assignedEffort, new IResourceSelector() {
+            @Override
+            public boolean isSelectable(Resource resource, LocalDate day) {
+                return true;
+            }
+        });
+
+        List<String> distribution = describe(distributor.distributeForDay(PartialDay.wholeDay(START), hours(20)));
+        assertThat(distribution, equalTo(expected.distributeForDay(START, hours(20))));
+        assertThat(distribution.get(0), equalTo(describe(workers.get(0), hours(8))));
+        assertThat(distribution.get(1), equalTo(describe(workers.get(1), hours(8))));
+        assertThat(distribution.get(2), equalTo(describe(workers.get(2), hours(4))));
+    }
+
+    @Test
+    public void theResourcesAlreadyPickedArePreferredTheNextDay() {
+        givenAssigned(workers.get(0), START, hours(6));
+        EffortDistributor distributor = new EffortDistributor(workers, assignedEffort, selector);
+        SortingAllResources expected = new SortingAllResources(workers, assignedEffort, selector);
+
+        LocalDate day = START;
+        for (int i = 0; i < 4; i++) {
+            assertSameDistribution(distributor, expected, day, hours(10));
+            day = day.plusDays(1);
+        }
+    }
+
+    @Test
+    public void theCapacityAsksForTheResourcesOfTheDayItIsCalledWith() {
+        EffortDistributor distributor = new EffortDistributor(workers, assignedEffort, selector);
+        LocalDate even = new LocalDate(2012, 6, 4);
+        LocalDate odd = even.plusDays(1);
+
+        assertThat(distributor.getCapacityAt(PartialDay.wholeDay(even)).getStandardEffort(),
+                equalTo(hours(8 * 6)));
+        assertThat(distributor.getCapacityAt(PartialDay.wholeDay(odd)).getStandardEffort(),
+                equalTo(hours(8 * 3)));
+        assertThat(distributor.getCapacityAt(PartialDay.wholeDay(even)).getStandardEffort(),
+                equalTo(hours(8 * 6)));
+    }
+
+    @Test
+    public void givesTheSameDistributionThanSortingAllTheResources() {
+        Random random = new Random(3);
+        for (Resource each : workers) {
+            for (int day = 0; day < 20; day++) {
+                givenAssigned(each, START.plusDays(day), hours(random.nextInt(3) * 4));
+            }
+        }
+        EffortDistributor distributor = new EffortDistributor(workers, assignedEffort, selector);
+        SortingAllResources expected = new SortingAllResources(workers, assignedEffort, selector);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate day = START.plusDays(random.nextInt(20));
+            EffortDuration total = min(hours(1 + random.nextInt(16)), availableAt(day));
+            if ( random.nextBoolean() ) {
+                distributor.getCapacityAt(PartialDay.wholeDay(day));
+            }
+            if ( !total.isZero() ) {
+                assertSameDistribution(distributor, expected, day, total);
+            }
+        }
+    }
+
+    /**
+     * Only the distribution without overtime is compared.
+     */
+    private EffortDuration availableAt(LocalDate day) {
+        EffortDuration result = EffortDuration.zero();
+        for (Resource each : workers) {
+            if ( selector.isSelectable(each, day) ) {
+                result = result.plus(CAPACITY.minus(min(assignedAt(each, day), CAPACITY)));
+            }
+        }
+        return result;
+    }
+
+}
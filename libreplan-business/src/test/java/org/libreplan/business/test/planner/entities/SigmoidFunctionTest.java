@@ -0,0 +1,73 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.entities;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.libreplan.business.planner.entities.SigmoidFunction;
+
+/**
+ * Tests for the distribution calculated by {@link SigmoidFunction}.
+ */
+public class SigmoidFunctionTest {
+
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    private static final int QUARTER_OF_HOUR = SECONDS_PER_HOUR / 4;
+
+    @Test
+    public void noDaysProducesAnEmptyDistribution() {
+        assertEquals(0, SigmoidFunction.secondsPerDay(0, 10).length);
+    }
+
+    @Test
+    public void followsASigmoidCurve() {
+        assertArrayEquals(new int[] { 900, 3600, 5400, 16200, 43200, 77400,
+                76500, 43200, 16200, 5400 },
+                SigmoidFunction.secondsPerDay(10, 80));
+    }
+
+    @Test
+    public void distributesAllTheHoursInQuartersOfHour() {
+        for (int days = 1; days <= 60; days++) {
+            for (int hours = 8 * days; hours <= 16 * days; hours += 3) {
+                int[] seconds = SigmoidFunction.secondsPerDay(days, hours);
+                assertEquals(days, seconds.length);
+                assertEquals(hours * SECONDS_PER_HOUR, sum(seconds));
+                for (int each : seconds) {
+                    assertTrue(each > 0);
+                    assertEquals(0, each % QUARTER_OF_HOUR);
+                }
+            }
+        }
+    }
+
+    private static int sum(int[] values) {
+        int result = 0;
+        for (int each : values) {
+            result += each;
+        }
+        return result;
+    }
+
+}
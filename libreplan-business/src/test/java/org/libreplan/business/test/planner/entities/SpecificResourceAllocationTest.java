@@ -727,6 +727,41 @@ public class SpecificResourceAllocationTest {
         assertThat(specificResourceAllocation.getAssignments(), haveHours(6, 12));
     }
 
+    @SuppressWarnings("serial")
+    @Test
+    public void theAssignedEffortOnAnIntervalTakesIntoAccountPartialDays() {
+        final IntraDayDate start = date(2000, 2, 4);
+
+        givenResourceCalendar(Capacity.create(hours(8)).overAssignableWithoutLimit(), new HashMap<LocalDate, Capacity>() {
+            {
+                put(start.getDate(), Capacity.create(hours(2)).notOverAssignableWithoutLimit());
+                put(plusDays(start, 1).getDate(), Capacity.create(hours(4)).notOverAssignableWithoutLimit());
+                put(plusDays(start, 3).getDate(), Capacity.create(hours(6)).notOverAssignableWithoutLimit());
+            }
+        });
+
+        givenSpecificResourceAllocation(start, 4);
+        specificResourceAllocation.onIntervalWithinTask(start, plusDays(start, 4)).allocateHours(20);
+
+        assertThat(specificResourceAllocation.getAssignedEffort(), equalTo(hours(20)));
+        assertThat(specificResourceAllocation.getNonConsolidatedEffort(), equalTo(hours(20)));
+        assertThat(specificResourceAllocation.getConsolidatedEffort(), equalTo(hours(0)));
+
+        assertThat(specificResourceAllocation.getAssignedEffort(worker, start, plusDays(start, 4)),
+                equalTo(hours(20)));
+
+        assertThat(specificResourceAllocation.getAssignedEffort(worker, plusDays(start, 1), plusDays(start, 3)),
+                equalTo(hours(12)));
+
+        assertThat(specificResourceAllocation.getAssignedEffort(
+                worker, plusDaysAndEffort(start, 1, hours(1)), plusDaysAndEffort(start, 3, hours(2))),
+                equalTo(hours(13)));
+
+        assertThat(specificResourceAllocation.getAssignedEffort(
+                worker, plusDaysAndEffort(start, 1, hours(1)), plusDaysAndEffort(start, 1, hours(3))),
+                equalTo(hours(2)));
+    }
+
     @Test
     public void theEndDateOfTheAllocationIsExclusive() {
         IntraDayDate start = date(2000, 2, 4);
@@ -0,0 +1,238 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.resources.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Checks that the assigned effort per day of a {@link Resource}, which is
+ * updated as assignments are added and removed, is the same one that is
+ * calculated from all its assignments.
+ */
+public class ResourceAssignedEffortTest {
+
+    private static final LocalDate TODAY = new LocalDate(2012, 6, 4);
+
+    private Scenario current;
+
+    private Scenario another;
+
+    private Worker worker;
+
+    /**
+     * Assignments added to the worker and not removed yet, in any scenario.
+     */
+    private List<DayAssignment> added;
+
+    private static class AssignmentOnScenario extends DayAssignment {
+
+        private final Scenario scenario;
+
+        private final BaseEntity parent;
+
+        AssignmentOnScenario(LocalDate day, EffortDuration duration, Resource resource, Scenario scenario,
+                             BaseEntity parent) {
+            super(day, duration, resource);
+            this.scenario = scenario;
+            this.parent = parent;
+        }
+
+        @Override
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        @Override
+        protected BaseEntity getParent() {
+            return parent;
+        }
+
+        @Override
+        protected void detachFromAllocation() {
+        }
+
+        @Override
+        public DayAssignment withDuration(EffortDuration newDuration) {
+            return new AssignmentOnScenario(getDay(), newDuration, getResource(), scenario, parent);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        current = Scenario.create("current");
+        another = Scenario.create("another");
+        worker = Worker.create("firstName", "surName", "2333232");
+        worker.useScenario(current);
+        added = new ArrayList<>();
+    }
+
+    private DayAssignment assignment(LocalDate day, int hours, Scenario scenario) {
+        return assignment(day, hours, scenario, current);
+    }
+
+    private DayAssignment assignment(LocalDate day, int hours, Scenario scenario, BaseEntity parent) {
+        return new AssignmentOnScenario(day, hours(hours), worker, scenario, parent);
+    }
+
+    private void add(DayAssignment... assignments) {
+        worker.addNewAssignments(Arrays.asList(assignments));
+        added.addAll(Arrays.asList(assignments));
+    }
+
+    private void remove(DayAssignment... assignments) {
+        worker.removeAssignments(Arrays.asList(assignments));
+        added.removeAll(Arrays.asList(assignments));
+    }
+
+    private boolean isVisible(DayAssignment assignment) {
+        return assignment.getScenario() == null || assignment.getScenario().equals(current);
+    }
+
+    private EffortDuration recalculatedEffort(LocalDate day, Set<BaseEntity> discounted) {
+        EffortDuration result = EffortDuration.zero();
+        for (DayAssignment each : added) {
+            if ( isVisible(each) && each.getDay().equals(day) && !discounted.contains(getParent(each)) ) {
+                result = result.plus(each.getDuration());
+            }
+        }
+        return result;
+    }
+
+    private BaseEntity getParent(DayAssignment assignment) {
+        return ((AssignmentOnScenario) assignment).parent;
+    }
+
+    private void assertEffortIsRecalculatedOne(LocalDate day) {
+        assertThat(day.toString(), worker.getAssignedEffort(day),
+                equalTo(recalculatedEffort(day, Collections.<BaseEntity> emptySet())));
+    }
+
+    private void assertEffortDiscountingIsRecalculatedOne(LocalDate day, BaseEntity discounted) {
+        Map<Long, Set<BaseEntity>> allocations = BaseEntity.byId(Collections.singleton(discounted));
+        assertThat(day.toString(), worker.getAssignedDurationDiscounting(allocations, day),
+                equalTo(recalculatedEffort(day, Collections.singleton(discounted))));
+    }
+
+    @Test
+    public void addingRemovingAndAddingAgainOnTheSameDay() {
+        DayAssignment first = assignment(TODAY, 4, current);
+        DayAssignment second = assignment(TODAY, 3, current);
+        add(first, second);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(7)));
+
+        remove(first);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(3)));
+
+        remove(second);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(0)));
+
+        add(first);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+
+        add(second);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(7)));
+    }
+
+    @Test
+    public void removingAnAssignmentNotAddedDoesNotChangeTheEffort() {
+        add(assignment(TODAY, 4, current));
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+
+        remove(assignment(TODAY, 4, current));
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+    }
+
+    @Test
+    public void onlyTheAssignmentsOfTheCurrentScenarioOrWithoutScenarioAreCounted() {
+        add(assignment(TODAY, 4, current));
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+
+        DayAssignment onAnotherScenario = assignment(TODAY, 2, another);
+        DayAssignment withoutScenario = assignment(TODAY, 1, null);
+        add(onAnotherScenario, withoutScenario);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(5)));
+
+        remove(onAnotherScenario);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(5)));
+
+        remove(withoutScenario);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+    }
+
+    @Test
+    public void changingTheScenarioUsesTheAssignmentsOfTheNewOne() {
+        add(assignment(TODAY, 4, current), assignment(TODAY, 2, another));
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(4)));
+
+        worker.useScenario(another);
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(2)));
+
+        add(assignment(TODAY, 3, another));
+        assertThat(worker.getAssignedEffort(TODAY), equalTo(hours(5)));
+    }
+
+    @Test
+    public void theEffortIsTheRecalculatedOneAfterManyChanges() {
+        Random random = new Random(11);
+        List<Scenario> scenarios = Arrays.asList(current, another, null);
+        List<BaseEntity> parents = Arrays.<BaseEntity> asList(current, another, worker);
+        List<DayAssignment> removed = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(3);
+            if ( operation == 0 && !added.isEmpty() ) {
+                DayAssignment assignment = added.get(random.nextInt(added.size()));
+                remove(assignment);
+                removed.add(assignment);
+            } else if ( operation == 1 && !removed.isEmpty() ) {
+                add(removed.remove(random.nextInt(removed.size())));
+            } else {
+                add(assignment(TODAY.plusDays(random.nextInt(5)), 1 + random.nextInt(8),
+                        scenarios.get(random.nextInt(scenarios.size())),
+                        parents.get(random.nextInt(parents.size()))));
+            }
+
+            LocalDate day = TODAY.plusDays(random.nextInt(5));
+            assertEffortIsRecalculatedOne(day);
+            assertEffortDiscountingIsRecalculatedOne(day, parents.get(random.nextInt(parents.size())));
+        }
+    }
+
+}
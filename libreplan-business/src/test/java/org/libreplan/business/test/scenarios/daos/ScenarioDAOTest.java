@@ -20,10 +20,14 @@
  */
 package org.libreplan.business.test.scenarios.daos;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
@@ -131,4 +135,64 @@ public class ScenarioDAOTest {
         });
     }
 
+    private Scenario givenDerivedScenarioStored(Scenario predecessor) {
+        Scenario result = predecessor.newDerivedScenario();
+        result.setName(UUID.randomUUID().toString());
+        scenarioDAO.save(result);
+
+        return result;
+    }
+
+    @Test
+    public void derivedScenariosAreReturnedByLevels() {
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                Scenario root = createNewScenario();
+                scenarioDAO.save(root);
+
+                Scenario first = givenDerivedScenarioStored(root);
+                Scenario second = givenDerivedScenarioStored(root);
+                Scenario derivedFromFirst = givenDerivedScenarioStored(first);
+                scenarioDAO.flush();
+
+                assertThat(scenarioDAO.getDerivedScenarios(root),
+                        equalTo(Arrays.asList(first, second, derivedFromFirst)));
+                assertThat(scenarioDAO.getDerivedScenarios(first),
+                        equalTo(Collections.singletonList(derivedFromFirst)));
+                assertTrue(scenarioDAO.getDerivedScenarios(second).isEmpty());
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void onlyTheDerivedScenariosUsingThePreviousVersionAreUpdated() {
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                Order order = givenOrderStored();
+                Scenario root = createNewScenario();
+                OrderVersion previousVersion = root.addOrder(order);
+                scenarioDAO.save(root);
+
+                Scenario sharingVersion = givenDerivedScenarioStored(root);
+                Scenario withOwnVersion = givenDerivedScenarioStored(root);
+                OrderVersion ownVersion = OrderVersion.createInitialVersion(withOwnVersion);
+                withOwnVersion.setOrderVersion(order, ownVersion);
+                scenarioDAO.save(withOwnVersion);
+                scenarioDAO.flush();
+
+                OrderVersion newVersion = OrderVersion.createInitialVersion(root);
+                root.setOrderVersion(order, newVersion);
+                scenarioDAO.updateDerivedScenariosWithNewVersion(previousVersion, order, root, newVersion);
+                scenarioDAO.flush();
+
+                assertThat(sharingVersion.getOrderVersion(order), equalTo(newVersion));
+                assertThat(withOwnVersion.getOrderVersion(order), equalTo(ownVersion));
+                return null;
+            }
+        });
+    }
+
 }
@@ -0,0 +1,86 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 WirelessGalicia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.templates.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.libreplan.business.templates.entities.TemplateHistoricalStatistics;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Tests for {@link TemplateHistoricalStatistics}.
+ */
+public class TemplateHistoricalStatisticsTest {
+
+    @Test
+    public void withoutApplicationsEverythingIsZero() {
+        TemplateHistoricalStatistics statistics = TemplateHistoricalStatistics.create();
+
+        assertThat(statistics.getApplications(), equalTo(0));
+        assertThat(statistics.getFinishedApplications(), equalTo(0));
+        assertThat(statistics.getAverageEstimatedHours(), equalTo(BigDecimal.ZERO));
+        assertThat(statistics.getMaxEstimatedHours(), equalTo(BigDecimal.ZERO));
+        assertThat(statistics.getMinEstimatedHours(), equalTo(BigDecimal.ZERO));
+        assertThat(statistics.getAverageWorkedHours(), equalTo(EffortDuration.zero()));
+        assertThat(statistics.getMaxWorkedHours(), equalTo(EffortDuration.zero()));
+        assertThat(statistics.getMinWorkedHours(), equalTo(EffortDuration.zero()));
+    }
+
+    @Test
+    public void estimatedHoursAreTakenFromAllTheApplications() {
+        TemplateHistoricalStatistics statistics = TemplateHistoricalStatistics.create();
+        statistics.addApplication(new BigDecimal(10), null);
+        statistics.addApplication(new BigDecimal(30), EffortDuration.hours(5));
+        statistics.addApplication(new BigDecimal(20), null);
+
+        assertThat(statistics.getApplications(), equalTo(3));
+        assertThat(statistics.getAverageEstimatedHours(), equalTo(new BigDecimal(20)));
+        assertThat(statistics.getMaxEstimatedHours(), equalTo(new BigDecimal(30)));
+        assertThat(statistics.getMinEstimatedHours(), equalTo(new BigDecimal(10)));
+    }
+
+    @Test
+    public void workedHoursAreTakenOnlyFromTheFinishedApplications() {
+        TemplateHistoricalStatistics statistics = TemplateHistoricalStatistics.create();
+        statistics.addApplication(new BigDecimal(10), EffortDuration.hours(4));
+        statistics.addApplication(new BigDecimal(10), null);
+        statistics.addApplication(new BigDecimal(10), EffortDuration.hours(8));
+
+        assertThat(statistics.getFinishedApplications(), equalTo(2));
+        assertThat(statistics.getAverageWorkedHours(), equalTo(EffortDuration.hours(6)));
+        assertThat(statistics.getMaxWorkedHours(), equalTo(EffortDuration.hours(8)));
+        assertThat(statistics.getMinWorkedHours(), equalTo(EffortDuration.hours(4)));
+    }
+
+    @Test
+    public void theAverageOfEstimatedHoursIsRoundedToTwoSignificantDigits() {
+        TemplateHistoricalStatistics statistics = TemplateHistoricalStatistics.create();
+        statistics.addApplication(new BigDecimal(100), null);
+        statistics.addApplication(new BigDecimal(101), null);
+        statistics.addApplication(new BigDecimal(101), null);
+
+        assertThat(statistics.getAverageEstimatedHours().compareTo(new BigDecimal(100)), equalTo(0));
+    }
+
+}
@@ -21,21 +21,41 @@
 
 package org.libreplan.business.test.workreports.daos;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Restrictions;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,8 +76,21 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
     @Resource
     private IDataBootstrap configurationBootstrap;
 
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
     @Before
     public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
         configurationBootstrap.loadRequiredData();
     }
 
@@ -93,4 +126,78 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
         List<WorkReportLine> list = workReportLineDAO.list(WorkReportLine.class);
         assertEquals(previous + 2, list.size());
     }
+
+    private Order createValidOrder() {
+        Order order = Order.create();
+        order.setName(UUID.randomUUID().toString());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        BaseCalendar basicCalendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(basicCalendar);
+        order.setCalendar(basicCalendar);
+        order.useSchedulingDataFor(ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order));
+
+        return order;
+    }
+
+    private static OrderLine createValidOrderLine() {
+        OrderLine orderLine = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        orderLine.setName(UUID.randomUUID().toString());
+        orderLine.setCode(UUID.randomUUID().toString());
+
+        return orderLine;
+    }
+
+    private WorkReportLine createValidWorkReportLineFor(OrderElement orderElement) {
+        WorkReportLine workReportLine = createValidWorkReportLine();
+        workReportLine.setOrderElement(orderElement);
+        workReportLineDAO.save(workReportLine);
+
+        return workReportLine;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<WorkReportLine> findByOrderElementIn(Collection<OrderElement> orderElements) {
+        return new HashSet<>(sessionFactory.getCurrentSession()
+                .createCriteria(WorkReportLine.class)
+                .add(Restrictions.in("orderElement", orderElements))
+                .list());
+    }
+
+    @Test
+    @Transactional
+    public void testFindByOrderElementAndChildrenGivesTheSameLinesThanQueryingAllTheChildren() {
+        Order order = createValidOrder();
+        OrderLineGroup orderLineGroup = OrderLineGroup.create();
+        orderLineGroup.setName(UUID.randomUUID().toString());
+        orderLineGroup.setCode(UUID.randomUUID().toString());
+        order.add(orderLineGroup);
+        OrderLine first = createValidOrderLine();
+        orderLineGroup.add(first);
+        OrderLine second = createValidOrderLine();
+        orderLineGroup.add(second);
+        OrderLine outside = createValidOrderLine();
+        order.add(outside);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+
+        WorkReportLine onGroup = createValidWorkReportLineFor(orderLineGroup);
+        WorkReportLine onFirst = createValidWorkReportLineFor(first);
+        WorkReportLine onSecond = createValidWorkReportLineFor(second);
+        createValidWorkReportLineFor(outside);
+
+        Set<WorkReportLine> found = new HashSet<>(workReportLineDAO.findByOrderElementAndChildren(orderLineGroup));
+
+        assertThat(found, equalTo(new HashSet<>(Arrays.asList(onGroup, onFirst, onSecond))));
+
+        Collection<OrderElement> orderElementAndChildren = orderLineGroup.getAllChildren();
+        orderElementAndChildren.add(orderLineGroup);
+        assertThat(found, equalTo(findByOrderElementIn(orderElementAndChildren)));
+
+        Collection<OrderElement> allOfTheOrder = order.getAllChildren();
+        allOfTheOrder.add(order);
+        assertThat(new HashSet<>(workReportLineDAO.findByOrderElementAndChildren(order)),
+                equalTo(findByOrderElementIn(allOfTheOrder)));
+    }
+
 }
@@ -0,0 +1,119 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.util;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TextSearchIndexTest {
+
+    private static List<String[]> elements(String[]... elements) {
+        return asList(elements);
+    }
+
+    private static TextSearchIndex<String[]> indexOf(List<String[]> elements) {
+        return TextSearchIndex.create(elements, each -> asList(each));
+    }
+
+    private static List<String[]> linearSearch(List<String[]> elements, String text) {
+        String searched = text.trim().toLowerCase();
+        List<String[]> result = new ArrayList<>();
+        for (String[] each : elements) {
+            for (String field : each) {
+                if ( field.toLowerCase().contains(searched) ) {
+                    result.add(each);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void findsTheElementsHavingATextContainingTheSearchedOne() {
+        String[] first = { "PREFIX-0001", "Main project" };
+        String[] second = { "PREFIX-0002", "Documentation" };
+        String[] third = { "OTHER-0003", "Project review" };
+        TextSearchIndex<String[]> index = indexOf(elements(first, second, third));
+
+        assertThat(index.search("project"), equalTo(elements(first, third)));
+        assertThat(index.search(" prefix-000 "), equalTo(elements(first, second)));
+        assertThat(index.search("0003"), equalTo(elements(third)));
+        assertThat(index.search("nothing"), equalTo(elements()));
+    }
+
+    @Test
+    public void aBlankTextMatchesAllTheElements() {
+        List<String[]> elements = elements(new String[] { "a" }, new String[] { "b" });
+        TextSearchIndex<String[]> index = indexOf(elements);
+
+        assertThat(index.search(""), equalTo(elements));
+        assertThat(index.search("  "), equalTo(elements));
+    }
+
+    @Test
+    public void theSearchedTextMustBeContainedInASingleText() {
+        String[] element = { "abc", "def" };
+        TextSearchIndex<String[]> index = indexOf(elements(element));
+
+        assertThat(index.search("cde"), equalTo(elements()));
+        assertThat(index.search("bc"), equalTo(elements(element)));
+    }
+
+    @Test
+    public void nullTextsAreIgnored() {
+        String[] element = { null, "Name" };
+        TextSearchIndex<String[]> index = indexOf(elements(element));
+
+        assertThat(index.search("name"), equalTo(elements(element)));
+    }
+
+    @Test
+    public void givesTheSameResultsThanCheckingAllTheElements() {
+        Random random = new Random(7);
+        List<String[]> elements = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            elements.add(new String[] { randomText(random), randomText(random) });
+        }
+        TextSearchIndex<String[]> index = indexOf(elements);
+
+        for (int i = 0; i < 500; i++) {
+            String text = randomText(random).substring(0, 1 + random.nextInt(4));
+            assertThat(text, index.search(text), equalTo(linearSearch(elements, text)));
+        }
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder result = new StringBuilder();
+        int length = 5 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            result.append("aAbBc -".charAt(random.nextInt(7)));
+        }
+        return result.toString();
+    }
+
+}
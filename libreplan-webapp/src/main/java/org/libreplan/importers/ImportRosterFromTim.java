@@ -48,7 +48,6 @@ import org.libreplan.business.common.entities.PredefinedConnectors;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.Worker;
-import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.importers.RosterException.RosterExceptionItem;
 import org.libreplan.importers.tim.DataDTO;
 import org.libreplan.importers.tim.DepartmentDTO;
@@ -290,49 +289,79 @@ public class ImportRosterFromTim implements IImportRosterFromTim {
      *            list of roster exceptions
      */
     private void updateCalendarException(List<RosterException> rosterExceptions) {
+        Map<String, CalendarExceptionType> calendarExceptionTypes = new HashMap<String, CalendarExceptionType>();
         for (RosterException rosterException : rosterExceptions) {
-            List<RosterExceptionItem> items = rosterException
-                    .getRosterExceptionItems();
-            for (RosterExceptionItem item : items) {
-                updateCalendarExceptionPerWorker(rosterException.getWorker(),
-                        item.getDate(), item.getExceptionType(),
-                        item.getEffortDuration());
-            }
+            updateCalendarExceptionsPerWorker(rosterException.getWorker(),
+                    rosterException.getRosterExceptionItems(),
+                    calendarExceptionTypes);
         }
     }
 
 
     /**
-     * updates the calendar exception of the specified
-     * <code>{@link Worker}</code> for the specified <code>date</code>
+     * updates the calendar exceptions of the specified
+     * <code>{@link Worker}</code> for the dates of the specified
+     * <code>items</code>. The calendar is edited and saved only once for all
+     * of them
      *
      * @param worker
      *            the worker
-     * @param date
-     *            the date of the exception
-     * @param exceptionName
-     *            the exception name
-     * @param effortDuration
-     *            the exceptions effortDurtaion
+     * @param items
+     *            the roster exception items of the worker
+     * @param calendarExceptionTypes
+     *            calendarExceptionTypes already found by name
      */
-    private void updateCalendarExceptionPerWorker(Worker worker,
-            LocalDate date, String exceptionName, EffortDuration effortDuration) {
-        CalendarExceptionType calendarExceptionType = getCalendarExceptionType(exceptionName);
-        if (calendarExceptionType == null) {
-            return;
-        }
+    private void updateCalendarExceptionsPerWorker(Worker worker,
+            List<RosterExceptionItem> items,
+            Map<String, CalendarExceptionType> calendarExceptionTypes) {
         ResourceCalendar resourceCalendar = (ResourceCalendar) worker
                 .getCalendarOrDefault();
-        CalendarException calendarExceptionDay = resourceCalendar
-                .getExceptionDay(date);
-        Capacity capacity = Capacity.create(effortDuration);
-        if (calendarExceptionDay != null) {
-            resourceCalendar.removeExceptionDay(calendarExceptionDay.getDate());
+        boolean editing = false;
+        for (RosterExceptionItem item : items) {
+            CalendarExceptionType calendarExceptionType = getCalendarExceptionType(
+                    item.getExceptionType(), calendarExceptionTypes);
+            if (calendarExceptionType == null) {
+                continue;
+            }
+            LocalDate date = item.getDate();
+            CalendarException calendarExceptionDay = resourceCalendar
+                    .getExceptionDay(date);
+            Capacity capacity = Capacity.create(item.getEffortDuration());
+            if (calendarExceptionDay != null) {
+                resourceCalendar.removeExceptionDay(calendarExceptionDay
+                        .getDate());
+            }
+            if (!editing) {
+                baseCalendarModel.initEdit(resourceCalendar);
+                editing = true;
+            }
+            baseCalendarModel.updateException(calendarExceptionType, date,
+                    date, capacity);
+        }
+        if (editing) {
+            baseCalendarModel.confirmSave();
+        }
+    }
+
+    /**
+     * Returns the calendarExceptionType for the specified <code>name</code>,
+     * searching it only the first time it is requested
+     *
+     * @param name
+     *            the exception calendar name
+     * @param calendarExceptionTypes
+     *            calendarExceptionTypes already found by name
+     */
+    private CalendarExceptionType getCalendarExceptionType(String name,
+            Map<String, CalendarExceptionType> calendarExceptionTypes) {
+        CalendarExceptionType result = calendarExceptionTypes.get(name);
+        if (result == null) {
+            result = getCalendarExceptionType(name);
+            if (result != null) {
+                calendarExceptionTypes.put(name, result);
+            }
         }
-        baseCalendarModel.initEdit(resourceCalendar);
-        baseCalendarModel.updateException(calendarExceptionType, date, date,
-                capacity);
-        baseCalendarModel.confirmSave();
+        return result;
     }
 
     /**
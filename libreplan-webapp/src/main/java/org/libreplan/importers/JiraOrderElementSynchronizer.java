@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -170,13 +171,17 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
         synchronizationInfo = new SynchronizationInfo(_(
                 "Synchronization order {0}", order.getName()));
 
+        Map<String, OrderElement> childrenByCode = indexChildrenByCode(order
+                .getChildren());
+
         for (IssueDTO issue : issues) {
             String code = PredefinedConnectorProperties.JIRA_CODE_PREFIX
                     + order.getCode() + "-"
                     + issue.getKey();
             String name = issue.getFields().getSummary();
 
-            OrderLine orderLine = syncOrderLine(order, code, name);
+            OrderLine orderLine = syncOrderLine(order, childrenByCode, code,
+                    name);
             if (orderLine == null) {
                 synchronizationInfo.addFailedReason(_(
                         "Order-element for \"{0}\" issue not found",
@@ -205,6 +210,23 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
     }
 
 
+    /**
+     * Indexes the <code>children</code> of an order by code, so each issue
+     * finds its orderLine without traversing all of them. The codes are
+     * matched exactly and, if several children share a code, the first one is
+     * kept like {@link Order#getOrderElement(String)} does.
+     */
+    static Map<String, OrderElement> indexChildrenByCode(
+            List<OrderElement> children) {
+        Map<String, OrderElement> result = new HashMap<String, OrderElement>();
+        for (OrderElement each : children) {
+            if (!result.containsKey(each.getCode())) {
+                result.put(each.getCode(), each);
+            }
+        }
+        return result;
+    }
+
     /**
      * Synchronize orderline
      *
@@ -215,14 +237,16 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
      *
      * @param order
      *            an existing order
+     * @param childrenByCode
+     *            the children of the order indexed by code
      * @param code
      *            unique code for orderLine
      * @param name
      *            name for the orderLine to be added or updated
      */
-    private OrderLine syncOrderLine(Order order, String code,
-            String name) {
-        OrderElement orderElement = order.getOrderElement(code);
+    private OrderLine syncOrderLine(Order order,
+            Map<String, OrderElement> childrenByCode, String code, String name) {
+        OrderElement orderElement = childrenByCode.get(code);
         if (orderElement != null && !orderElement.isLeaf()) {
             return null;
         }
@@ -232,6 +256,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             orderLine = OrderLine.create();
             orderLine.setCode(code);
             order.add(orderLine);
+            childrenByCode.put(code, orderLine);
         }
         orderLine.setName(name);
         return orderLine;
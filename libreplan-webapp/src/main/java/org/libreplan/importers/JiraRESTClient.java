@@ -19,6 +19,7 @@
 
 package org.libreplan.importers;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -59,7 +60,8 @@ public class JiraRESTClient {
     private static final String FIELDS_TO_INCLUDE_IN_RESPONSE = "summary,status,timetracking,worklog";
 
     /**
-     * Max number of issues to return(default is 50)
+     * Max number of issues to return per request(default is 50). Jira could
+     * return less, so all the pages are requested until reaching the total.
      */
     private static final long MAX_RESULTS = 1000;
 
@@ -114,9 +116,49 @@ public class JiraRESTClient {
         client.query("maxResults", MAX_RESULTS);
         client.query("fields", StringUtils.deleteWhitespace(FIELDS_TO_INCLUDE_IN_RESPONSE));
 
-        SearchResultDTO searchResult = client.get(SearchResultDTO.class);
+        return getAllPages(new ISearchPages() {
+            @Override
+            public SearchResultDTO getPage(int startAt) {
+                client.replaceQueryParam("startAt", startAt);
 
-        return searchResult.getIssues();
+                return client.get(SearchResultDTO.class);
+            }
+        });
+    }
+
+    /**
+     * Source of the pages of a search
+     */
+    interface ISearchPages {
+
+        SearchResultDTO getPage(int startAt);
+
+    }
+
+    /**
+     * Requests the pages of a search one after another until reaching the
+     * total of issues the search reports. If the total is not reported, it
+     * goes on until an empty page is returned.
+     *
+     * @param pages
+     *            the source of the pages
+     * @return the issues of all the pages
+     */
+    static List<IssueDTO> getAllPages(ISearchPages pages) {
+        List<IssueDTO> result = new ArrayList<>();
+        while (true) {
+            SearchResultDTO searchResult = pages.getPage(result.size());
+
+            List<IssueDTO> issues = searchResult.getIssues();
+            if ( issues == null || issues.isEmpty() ) {
+                return result;
+            }
+            result.addAll(issues);
+
+            if ( searchResult.getTotal() != null && result.size() >= searchResult.getTotal() ) {
+                return result;
+            }
+        }
     }
 
     /**
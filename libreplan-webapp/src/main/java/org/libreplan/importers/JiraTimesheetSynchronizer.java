@@ -21,8 +21,11 @@ package org.libreplan.importers;
 
 import static org.libreplan.web.I18nHelper._;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.NonUniqueResultException;
@@ -71,7 +74,9 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
 
     private SynchronizationInfo synchronizationInfo;
 
-    private List<Worker> workers;
+    private Map<String, Worker> workersByNif;
+
+    private Map<String, WorkReportLine> workReportLinesByCode;
 
     private WorkReportType workReportType;
 
@@ -106,8 +111,8 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
         workReportType = getJiraTimesheetsWorkReportType();
         typeOfWorkHours = getTypeOfWorkHours();
 
-        workers = getWorkers();
-        if (workers == null && workers.isEmpty()) {
+        workersByNif = getWorkersByNif();
+        if (workersByNif.isEmpty()) {
             synchronizationInfo.addFailedReason(_("No workers found"));
             return;
         }
@@ -128,6 +133,7 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
         String code = order.getCode() + "-" + orderSyncInfo.getKey();
 
         WorkReport workReport = updateOrCreateWorkReport(code);
+        workReportLinesByCode = indexByCode(workReport.getWorkReportLines());
 
         for (IssueDTO issue : issues) {
             WorkLogDTO workLog = issue.getFields().getWorklog();
@@ -203,15 +209,14 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
                 continue;
             }
 
-            WorkReportLine workReportLine;
             String code = orderElement.getCode() + "-" + workLogItem.getId();
 
-            try {
-                workReportLine = workReport.getWorkReportLineByCode(code);
-            } catch (InstanceNotFoundException e) {
+            WorkReportLine workReportLine = workReportLinesByCode.get(code);
+            if (workReportLine == null) {
                 workReportLine = WorkReportLine.create(workReport);
                 workReport.addWorkReportLine(workReportLine);
                 workReportLine.setCode(code);
+                workReportLinesByCode.put(code, workReportLine);
             }
 
             updateWorkReportLine(workReportLine, orderElement, workLogItem, resource);
@@ -333,12 +338,35 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
 
 
     /**
-     * Gets all LibrePlan workers.
+     * Gets all LibrePlan workers indexed by nif. If several workers share a
+     * nif, the first one is kept.
+     *
+     * @return map of workers by nif
+     */
+    private Map<String, Worker> getWorkersByNif() {
+        Map<String, Worker> result = new HashMap<>();
+        for (Worker worker : workerDAO.findAll()) {
+            result.putIfAbsent(worker.getNif(), worker);
+        }
+        return result;
+    }
+
+    /**
+     * Indexes <code>workReportLines</code> by code ignoring case, the same
+     * way {@link WorkReport#getWorkReportLineByCode(String)} searches them.
      *
-     * @return list of workers
+     * @param workReportLines
+     *            the lines of the work report being synchronized
+     * @return map of workReportLines by code
      */
-    private List<Worker> getWorkers() {
-        return workerDAO.findAll();
+    static Map<String, WorkReportLine> indexByCode(Set<WorkReportLine> workReportLines) {
+        Map<String, WorkReportLine> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (WorkReportLine each : workReportLines) {
+            if (each.getCode() != null) {
+                result.putIfAbsent(each.getCode(), each);
+            }
+        }
+        return result;
     }
 
     /**
@@ -349,10 +377,9 @@ public class JiraTimesheetSynchronizer implements IJiraTimesheetSynchronizer {
      * @return worker if found, null otherwise
      */
     private Worker getWorker(String nif) {
-        for (Worker worker : workers) {
-            if (worker.getNif().equals(nif)) {
-                return worker;
-            }
+        Worker worker = workersByNif.get(nif);
+        if (worker != null) {
+            return worker;
         }
         synchronizationInfo.addFailedReason(_("Worker \"{0}\" not found", nif));
         return null;
@@ -146,7 +146,7 @@ public class BandboxSearch extends HtmlMacroComponent {
         final Listitem listitem = getSelectedItem();
         
         if ( listitem != null ) {
-        	setSelectedElement(listitem.getValue());
+        	setSelectedElement(finder.getElementFor(listitem.getValue()));
         }
     }
 
@@ -180,18 +180,8 @@ public class BandboxSearch extends HtmlMacroComponent {
      *
      * @param inputText
      */
-    @SuppressWarnings("unchecked")
     private ListModel<Object> getSubModel(String inputText) {
-        List<Object> result = new ArrayList<>();
-
-        final ListModel finderModel = finder.getModel();
-        for (int i = 0; i < finderModel.getSize(); i++) {
-            Object obj = finderModel.getElementAt(i);
-            if (finder.entryMatchesText(obj, inputText)) {
-                result.add(obj);
-            }
-        }
-        return new SimpleListModel<>(result);
+        return new SimpleListModel<>(finder.getMatchingElements(inputText));
     }
 
     /**
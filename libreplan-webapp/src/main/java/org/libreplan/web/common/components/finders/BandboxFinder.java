@@ -21,6 +21,11 @@
 
 package org.libreplan.web.common.components.finders;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.libreplan.business.util.TextSearchIndex;
 import org.springframework.transaction.annotation.Transactional;
 import org.zkoss.zul.ListModel;
 import org.zkoss.zul.Listitem;
@@ -39,11 +44,14 @@ public abstract class BandboxFinder implements IBandboxFinder {
 
     private ListModel model;
 
+    private TextSearchIndex<?> searchIndex;
+
     @Override
     @Transactional(readOnly = true)
     public ListModel getModel() {
         if (model == null) {
-            model = new SimpleListModel<>(getAll());
+            searchIndex = getSearchIndex();
+            model = new SimpleListModel<>(searchIndex != null ? searchIndex.getAll() : getAll());
         }
 
         return model;
@@ -51,9 +59,49 @@ public abstract class BandboxFinder implements IBandboxFinder {
 
     @Override
     public void setModel(ListModel model) {
+        this.searchIndex = null;
         this.model = model;
     }
 
+    /**
+     * Override it to provide a {@link TextSearchIndex} with the elements
+     * returned by {@link #getAll()}, indexed by the same texts checked in
+     * {@link #entryMatchesText(Object, String)}. It can hold lighter entries
+     * instead of the elements, then {@link #getElementFor(Object)} has to
+     * retrieve the element of the entry picked.
+     *
+     * It's only used while the model is the one built from it, if another
+     * model is set the matching is done with
+     * {@link #entryMatchesText(Object, String)}.
+     */
+    protected TextSearchIndex<?> getSearchIndex() {
+        return null;
+    }
+
+    @Override
+    public List<Object> getMatchingElements(String text) {
+        ListModel currentModel = getModel();
+        TextSearchIndex<?> index = searchIndex;
+
+        if (index != null) {
+            return Collections.unmodifiableList(index.search(text));
+        }
+
+        List<Object> result = new ArrayList<>();
+        for (int i = 0; i < currentModel.getSize(); i++) {
+            Object obj = currentModel.getElementAt(i);
+            if (entryMatchesText(obj, text)) {
+                result.add(obj);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Object getElementFor(Object obj) {
+        return obj;
+    }
+
     @Override
     public ListitemRenderer getItemRenderer() {
         return _defRend;
@@ -78,6 +126,7 @@ public abstract class BandboxFinder implements IBandboxFinder {
     };
 
     public void resetModel() {
+        this.searchIndex = null;
         this.model = null;
     }
 }
@@ -45,6 +45,14 @@ public interface IBandboxFinder {
      */
     boolean entryMatchesText(Object obj, String text);
 
+    /**
+     * Get the elements of the model matching input text
+     *
+     * @param text
+     * @return
+     */
+    List<Object> getMatchingElements(String text);
+
     /**
      * Get list of {@link BaseEntity} to fill {@link BandboxSearch}
      *
@@ -93,6 +101,15 @@ public interface IBandboxFinder {
      */
     String objectToString(Object obj);
 
+    /**
+     * The element selected when an object of the list of elements is picked.
+     * Usually the object itself.
+     *
+     * @param obj
+     * @return
+     */
+    Object getElementFor(Object obj);
+
     /**
      * Reset the model
      */
@@ -21,10 +21,14 @@
 
 package org.libreplan.web.common.components.finders;
 
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.daos.OrderElementSearchEntry;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.util.TextSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,17 +41,24 @@ import java.util.List;
 /**
  * Bandbox finder for {@link OrderElement}.
  *
+ * The list of elements shown by default is the search index snapshot, made of
+ * {@link OrderElementSearchEntry}. The {@link OrderElement} of an entry is
+ * only retrieved when it's picked.
+ *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
 @Repository
 public class OrderElementBandboxFinder extends BandboxFinder implements IBandboxFinder {
 
     @Autowired
-    private IOrderElementDAO orderElementDAO;
+    private PredefinedDatabaseSnapshots databaseSnapshots;
 
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
     private final String headers[] = { _("Project"), _("Project code"), _("Task"), _("Task code") };
 
     /**
@@ -60,37 +71,65 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
     @Override
     @Transactional(readOnly = true)
     public List<OrderElement> getAll() {
-        List<OrderElement> orderElements = orderElementDAO.getAll();
-        forLoadOrderElements(orderElements);
-        return orderElements;
+        return orderElementDAO.getAll();
     }
 
-    private void forLoadOrderElements(List<OrderElement> orderElements) {
-        for (OrderElement orderElement : orderElements) {
-            orderElement.getName();
-            orderElement.getOrder().getName();
+    @Override
+    protected TextSearchIndex<OrderElementSearchEntry> getSearchIndex() {
+        return databaseSnapshots.snapshotOrderElementsSearchIndex();
+    }
+
+    /**
+     * The list of elements can be made of {@link OrderElement}, if a model is
+     * set, or of the {@link OrderElementSearchEntry} of the snapshot.
+     */
+    private static OrderElementSearchEntry entryOf(Object obj) {
+        if ( obj instanceof OrderElementSearchEntry ) {
+            return (OrderElementSearchEntry) obj;
         }
+
+        return OrderElementSearchEntry.create((OrderElement) obj);
     }
 
     @Override
     public boolean entryMatchesText(Object obj, String text) {
-        OrderElement orderElement = (OrderElement) obj;
+        OrderElementSearchEntry entry = entryOf(obj);
         text = text.trim().toLowerCase();
 
-        return (orderElement.getCode().toLowerCase().contains(text) ||
-                orderElement.getName().toLowerCase().contains(text) ||
-                orderElement.getOrder().getCode().toLowerCase().contains(text) ||
-                orderElement.getOrder().getName().toLowerCase().contains(text));
+        return (entry.getCode().toLowerCase().contains(text) ||
+                entry.getName().toLowerCase().contains(text) ||
+                entry.getOrderCode().toLowerCase().contains(text) ||
+                entry.getOrderName().toLowerCase().contains(text));
     }
 
     @Override
     @Transactional(readOnly = true)
     public String objectToString(Object obj) {
+        if ( obj instanceof OrderElementSearchEntry ) {
+            OrderElementSearchEntry entry = (OrderElementSearchEntry) obj;
+            return entry.getName() + " :: " + entry.getOrderName();
+        }
+
         OrderElement orderElement = (OrderElement) obj;
         Order order = orderDAO.loadOrderAvoidingProxyFor(orderElement);
         return orderElement.getName() + " :: " + order.getName();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Object getElementFor(Object obj) {
+        if ( !(obj instanceof OrderElementSearchEntry) ) {
+            return obj;
+        }
+
+        try {
+            return orderElementDAO.find(((OrderElementSearchEntry) obj).getId());
+        } catch (InstanceNotFoundException e) {
+            // Removed after the snapshot was calculated
+            return null;
+        }
+    }
+
     @Override
     public String[] getHeaders() {
         return headers.clone();
@@ -105,23 +144,23 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
 
         @Override
         public void render(Listitem item, Object data, int i) {
-            OrderElement orderElement = (OrderElement) data;
-            item.setValue(orderElement);
+            OrderElementSearchEntry entry = entryOf(data);
+            item.setValue(data);
 
             Listcell orderName = new Listcell();
-            orderName.setLabel(orderElement.getOrder().getName());
+            orderName.setLabel(entry.getOrderName());
             orderName.setParent(item);
 
             Listcell orderCode = new Listcell();
-            orderCode.setLabel(orderElement.getOrder().getCode());
+            orderCode.setLabel(entry.getOrderCode());
             orderCode.setParent(item);
 
             Listcell orderElementName = new Listcell();
-            orderElementName.setLabel(orderElement.getName());
+            orderElementName.setLabel(entry.getName());
             orderElementName.setParent(item);
 
             Listcell orderElementCode = new Listcell();
-            orderElementCode.setLabel(orderElement.getCode());
+            orderElementCode.setLabel(entry.getCode());
             orderElementCode.setParent(item);
         }
 
@@ -20,11 +20,11 @@
 package org.libreplan.web.common.components.finders;
 
 import org.apache.commons.lang3.StringUtils;
-import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.util.TextSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 import org.zkoss.zul.Bandbox;
 import org.zkoss.zul.Listcell;
 import org.zkoss.zul.Listitem;
@@ -41,7 +41,7 @@ import java.util.List;
 public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFinder {
 
     @Autowired
-    private IResourceDAO resourceDAO;
+    private PredefinedDatabaseSnapshots databaseSnapshots;
 
     private final String headers[] = { _("Resource") };
 
@@ -53,9 +53,13 @@ public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFind
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<Resource> getAll() {
-        return resourceDAO.findAll();
+        return getSearchIndex().getAll();
+    }
+
+    @Override
+    protected TextSearchIndex<Resource> getSearchIndex() {
+        return databaseSnapshots.snapshotResourcesSearchIndex();
     }
 
     @Override
@@ -197,9 +197,7 @@ public class LimitingResourcesPanel extends HtmlMacroComponent {
     private MutableTreeModel<LimitingResourceQueue> createModelForTree() {
         MutableTreeModel<LimitingResourceQueue> result = MutableTreeModel.create(LimitingResourceQueue.class);
 
-        for (LimitingResourceQueue LimitingResourceQueue : getLimitingResourceQueues()) {
-            result.addToRoot(LimitingResourceQueue);
-        }
+        result.add(result.getRoot(), getLimitingResourceQueues());
 
         return result;
     }
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -1134,6 +1135,12 @@ class Row {
 
     private Map<DetailItem, Component> componentsByDetailItem = new WeakHashMap<>();
 
+    /**
+     * Last effort shown on each cell, so only the cells whose effort has
+     * changed are updated when the row is reloaded.
+     */
+    private Map<DetailItem, EffortDuration> effortShownByDetailItem = new WeakHashMap<>();
+
     private String name;
 
     private String description;
@@ -1489,8 +1496,18 @@ class Row {
     }
 
     private void reloadEffortsSameRowForDetailItems() {
-        for (Entry<DetailItem, Component> entry : componentsByDetailItem.entrySet()) {
-            reloadEffortOnInterval(entry.getValue(), entry.getKey());
+        Iterator<Entry<DetailItem, Component>> iterator = componentsByDetailItem.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Entry<DetailItem, Component> entry = iterator.next();
+
+            // Rows are reused between pages, so cells of previous pages must be discarded
+            if ( entry.getValue().getPage() == null ) {
+                iterator.remove();
+                effortShownByDetailItem.remove(entry.getKey());
+            } else {
+                reloadEffortOnInterval(entry.getValue(), entry.getKey());
+            }
         }
     }
 
@@ -1689,6 +1706,7 @@ class Row {
 
     Component effortOnInterval(DetailItem item) {
         Component result = cannotBeEdited(item) ? new Label() : disableIfNeeded(item, new EffortDurationBox());
+        effortShownByDetailItem.remove(item);
         reloadEffortOnInterval(result, item);
         componentsByDetailItem.put(item, result);
         addListenerIfNeeded(item, result);
@@ -1728,7 +1746,9 @@ class Row {
 
             fireCellChanged(item);
 
-            effortBox.setRawValue(getEffortForDetailItem(item));
+            EffortDuration effort = getEffortForDetailItem(item);
+            effortShownByDetailItem.put(item, effort);
+            effortBox.setRawValue(effort);
             reloadAllEffort();
         });
     }
@@ -1742,13 +1762,21 @@ class Row {
     }
 
     private void reloadEffortOnInterval(Component component, DetailItem item) {
+        EffortDuration effort = getEffortForDetailItem(item);
+
+        /* The style can change with the same effort, e.g. after consolidating */
+        boolean effortChanged = !effort.equals(effortShownByDetailItem.put(item, effort));
+
         if ( cannotBeEdited(item) ) {
             Label label = (Label) component;
-            label.setValue(getEffortForDetailItem(item).toFormattedString());
+            if ( effortChanged )
+                label.setValue(effort.toFormattedString());
+
             label.setClass(getLabelClassFor(item));
         } else {
             EffortDurationBox effortDurationBox = (EffortDurationBox) component;
-            effortDurationBox.setValue(getEffortForDetailItem(item));
+            if ( effortChanged )
+                effortDurationBox.setValue(effort);
 
             if ( isLimiting ) {
                 effortDurationBox.setDisabled(true);
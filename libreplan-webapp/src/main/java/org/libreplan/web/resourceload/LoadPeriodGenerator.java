@@ -21,9 +21,6 @@
 
 package org.libreplan.web.resourceload;
 
-import static org.libreplan.business.workingday.IntraDayDate.max;
-import static org.libreplan.business.workingday.IntraDayDate.min;
-
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -110,67 +107,13 @@ abstract class LoadPeriodGenerator {
         return allocation -> new LoadPeriodGeneratorOnCriterion(criterion, allocation, potentialResources);
     }
 
-    public List<LoadPeriodGenerator> join(LoadPeriodGenerator next) {
-        if (!overlaps(next)) {
-            return stripEmpty(this, next);
-        }
-
-        if (isIncluded(next)) {
-            return stripEmpty(this.until(next.start), intersect(next), this.from(next.end));
-        }
-        assert overlaps(next) && !isIncluded(next);
-        return stripEmpty(this.until(next.start), intersect(next), next.from(end));
-    }
-
     protected List<ResourceAllocation<?>> getAllocationsOnInterval() {
         return allocationsOnInterval;
     }
 
-    private List<LoadPeriodGenerator> stripEmpty(LoadPeriodGenerator... generators) {
-        List<LoadPeriodGenerator> result = new ArrayList<>();
-        for (LoadPeriodGenerator loadPeriodGenerator : generators) {
-            if (!loadPeriodGenerator.isEmpty()) {
-                result.add(loadPeriodGenerator);
-            }
-        }
-        return result;
-    }
-
-    private boolean isEmpty() {
-        return start.equals(end);
-    }
-
     protected abstract LoadPeriodGenerator create(
             IntraDayDate start, IntraDayDate end, List<ResourceAllocation<?>> allocationsOnInterval);
 
-    private LoadPeriodGenerator intersect(LoadPeriodGenerator other) {
-        return create(max(this.start, other.start), min(this.end, other.end), plusAllocations(other));
-    }
-
-    private List<ResourceAllocation<?>> plusAllocations(LoadPeriodGenerator other) {
-        List<ResourceAllocation<?>> result = new ArrayList<>();
-        result.addAll(allocationsOnInterval);
-        result.addAll(other.allocationsOnInterval);
-
-        return result;
-    }
-
-    private LoadPeriodGenerator from(IntraDayDate newStart) {
-        return create(newStart, end, allocationsOnInterval);
-    }
-
-    private LoadPeriodGenerator until(IntraDayDate newEnd) {
-        return create(start, newEnd, allocationsOnInterval);
-    }
-
-    boolean overlaps(LoadPeriodGenerator other) {
-        return start.compareTo(other.end) < 0 && other.start.compareTo(this.end) < 0;
-    }
-
-    private boolean isIncluded(LoadPeriodGenerator other) {
-        return other.start.compareTo(start) >= 0 && other.end.compareTo(end) <= 0;
-    }
-
     /**
      * @return <code>null</code> if the data is invalid
      */
@@ -33,12 +33,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 
 import org.joda.time.LocalDate;
@@ -68,6 +67,7 @@ import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workingday.IntraDayDate;
 import org.libreplan.web.calendars.BaseCalendarModel;
 import org.libreplan.web.planner.order.PlanningStateCreator.IAllocationCriteria;
 import org.libreplan.web.planner.order.PlanningStateCreator.PlanningState;
@@ -1115,8 +1115,6 @@ class PeriodsBuilder {
 
     private final List<? extends ResourceAllocation<?>> sortedByStartDate;
 
-    private final List<LoadPeriodGenerator> loadPeriodsGenerators = new LinkedList<>();
-
     private final LoadPeriodGeneratorFactory factory;
 
     private PeriodsBuilder(
@@ -1174,126 +1172,75 @@ class PeriodsBuilder {
     }
 
     private List<LoadPeriod> buildPeriods() {
-        for (ResourceAllocation<?> resourceAllocation : sortedByStartDate) {
-            loadPeriodsGenerators.add(factory.create(resourceAllocation));
-        }
-        joinPeriodGenerators();
-
-        return toGenerators(loadPeriodsGenerators);
+        return toGenerators(buildGenerators());
     }
 
-    private List<LoadPeriod> toGenerators(List<LoadPeriodGenerator> generators) {
-        List<LoadPeriod> result = new ArrayList<>();
-        for (LoadPeriodGenerator loadPeriodGenerator : generators) {
-            LoadPeriod period = loadPeriodGenerator.build();
-
-            if ( period != null ) {
-                result.add(period);
-            }
-        }
+    static List<LoadPeriodGenerator> buildGenerators(
+            LoadPeriodGeneratorFactory factory, List<? extends ResourceAllocation<?>> sortedByStartDate) {
 
-        return result;
+        return new PeriodsBuilder(factory, sortedByStartDate).buildGenerators();
     }
 
-    private void joinPeriodGenerators() {
-        ListIterator<LoadPeriodGenerator> iterator = loadPeriodsGenerators.listIterator();
-
-        while (iterator.hasNext()) {
-            final LoadPeriodGenerator current = findNextOneOverlapping(iterator);
-
-            if ( current != null ) {
-                rewind(iterator, current);
-                iterator.remove();
-                LoadPeriodGenerator next = iterator.next();
-                iterator.remove();
-                List<LoadPeriodGenerator> generated = current.join(next);
-                final LoadPeriodGenerator positionToComeBack = generated.get(0);
+    /**
+     * Sweeps the start and end dates of the allocations in order, keeping the allocations active at each point. Every
+     * interval between two consecutive dates with some active allocation becomes a generator, so it takes
+     * O(n log n) instead of rescanning the remaining generators on each overlap.
+     */
+    private List<LoadPeriodGenerator> buildGenerators() {
+        List<LoadPeriodGenerator> generators = new ArrayList<>();
+        Map<IntraDayDate, List<LoadPeriodGenerator>> startingAt = new HashMap<>();
+        Map<IntraDayDate, List<LoadPeriodGenerator>> endingAt = new HashMap<>();
+        TreeSet<IntraDayDate> points = new TreeSet<>();
 
-                final List<LoadPeriodGenerator> remaining =
-                        loadPeriodsGenerators.subList(iterator.nextIndex(), loadPeriodsGenerators.size());
-
-                List<LoadPeriodGenerator> generatorsSortedByStartDate =
-                        mergeListsKeepingByStartSortOrder(generated, remaining);
+        for (ResourceAllocation<?> resourceAllocation : sortedByStartDate) {
+            LoadPeriodGenerator generator = factory.create(resourceAllocation);
 
-                final int takenFromRemaining = generatorsSortedByStartDate.size() - generated.size();
-                removeNextElements(iterator, takenFromRemaining);
-                addAtCurrentPosition(iterator, generatorsSortedByStartDate);
-                rewind(iterator, positionToComeBack);
+            if ( generator.getStart().compareTo(generator.getEnd()) > 0 ) {
+                /* Not valid, it's kept so building it warns about it */
+                generators.add(generator);
+                continue;
             }
+            startingAt.computeIfAbsent(generator.getStart(), date -> new ArrayList<>()).add(generator);
+            endingAt.computeIfAbsent(generator.getEnd(), date -> new ArrayList<>()).add(generator);
+            points.add(generator.getStart());
+            points.add(generator.getEnd());
         }
-    }
 
-    private LoadPeriodGenerator findNextOneOverlapping(ListIterator<LoadPeriodGenerator> iterator) {
-        while (iterator.hasNext()) {
-            LoadPeriodGenerator current = iterator.next();
+        Set<LoadPeriodGenerator> active = new LinkedHashSet<>();
+        IntraDayDate previous = null;
 
-            if ( !iterator.hasNext() ) {
-                return null;
+        for (IntraDayDate point : points) {
+            if ( previous != null && !active.isEmpty() ) {
+                generators.add(joined(active, previous, point));
             }
 
-            LoadPeriodGenerator next = peekNext(iterator);
-            if ( current.overlaps(next) ) {
-                return current;
-            }
+            /* Added before removing so empty generators don't stay active */
+            active.addAll(startingAt.getOrDefault(point, Collections.emptyList()));
+            active.removeAll(endingAt.getOrDefault(point, Collections.emptyList()));
+            previous = point;
         }
 
-        return null;
+        return generators;
     }
 
-    private void addAtCurrentPosition(
-            ListIterator<LoadPeriodGenerator> iterator, List<LoadPeriodGenerator> sortedByStartDate) {
-
-        for (LoadPeriodGenerator l : sortedByStartDate) {
-            iterator.add(l);
-        }
-    }
-
-    private void removeNextElements(ListIterator<LoadPeriodGenerator> iterator, final int elementsNumber) {
-        for (int i = 0; i < elementsNumber; i++) {
-            iterator.next();
-            iterator.remove();
+    private LoadPeriodGenerator joined(Collection<LoadPeriodGenerator> active, IntraDayDate start, IntraDayDate end) {
+        List<ResourceAllocation<?>> allocations = new ArrayList<>();
+        for (LoadPeriodGenerator each : active) {
+            allocations.addAll(each.getAllocationsOnInterval());
         }
-    }
 
-    private void rewind(ListIterator<LoadPeriodGenerator> iterator, LoadPeriodGenerator nextOne) {
-        while (peekNext(iterator) != nextOne) {
-            iterator.previous();
-        }
+        return active.iterator().next().create(start, end, allocations);
     }
 
-    private List<LoadPeriodGenerator> mergeListsKeepingByStartSortOrder(
-            List<LoadPeriodGenerator> joined, List<LoadPeriodGenerator> remaining) {
-
-        List<LoadPeriodGenerator> result = new ArrayList<>();
-        ListIterator<LoadPeriodGenerator> joinedIterator = joined.listIterator();
-        ListIterator<LoadPeriodGenerator> remainingIterator = remaining.listIterator();
-
-        while (joinedIterator.hasNext() && remainingIterator.hasNext()) {
-            LoadPeriodGenerator fromJoined = peekNext(joinedIterator);
-            LoadPeriodGenerator fromRemaining = peekNext(remainingIterator);
+    private List<LoadPeriod> toGenerators(List<LoadPeriodGenerator> generators) {
+        List<LoadPeriod> result = new ArrayList<>();
+        for (LoadPeriodGenerator loadPeriodGenerator : generators) {
+            LoadPeriod period = loadPeriodGenerator.build();
 
-            if ( fromJoined.getStart().compareTo(fromRemaining.getStart()) <= 0 ) {
-                result.add(fromJoined);
-                joinedIterator.next();
-            } else {
-                result.add(fromRemaining);
-                remainingIterator.next();
+            if ( period != null ) {
+                result.add(period);
             }
         }
-        if ( joinedIterator.hasNext() ) {
-            result.addAll(joined.subList(joinedIterator.nextIndex(), joined.size()));
-        }
-
-        return result;
-    }
-
-    private LoadPeriodGenerator peekNext(ListIterator<LoadPeriodGenerator> iterator) {
-        if ( !iterator.hasNext() ) {
-            return null;
-        }
-
-        LoadPeriodGenerator result = iterator.next();
-        iterator.previous();
 
         return result;
     }
@@ -21,7 +21,6 @@
 
 package org.libreplan.web.templates.historicalStatistics;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,7 +32,7 @@ import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
-import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.templates.entities.TemplateHistoricalStatistics;
 import org.libreplan.web.templates.IOrderTemplatesModel;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
@@ -58,8 +57,6 @@ public class OrderElementHistoricalStatisticsComponent extends
 
     private List<OrderElement> orderElements = new ArrayList<OrderElement>();
 
-    private List<OrderElement> finishedOrderElements = new ArrayList<OrderElement>();
-
     public String applications = "0";
     public String finishApplications = "0";
     public String averageEstimatedHours = "0";
@@ -92,23 +89,29 @@ public class OrderElementHistoricalStatisticsComponent extends
                         @Override
                         public Void execute() {
                             model.getOrderElementsOnConversation().reattach();
-                            finishedOrderElements = getFinishedApplications();
-
-                            applications = getApplicationsNumber().toString();
-                            finishApplications = getFinishedApplicationsNumber()
+                            TemplateHistoricalStatistics statistics = orderElementDAO
+                                    .calculateHistoricalStatistics(orderElements);
+
+                            applications = Integer.toString(statistics
+                                    .getApplications());
+                            finishApplications = Integer.toString(statistics
+                                    .getFinishedApplications());
+                            averageEstimatedHours = statistics
+                                    .getAverageEstimatedHours().setScale(2)
                                     .toString();
-                            averageEstimatedHours = calculateAverageEstimatedHours()
-                                    .setScale(2).toString();
-                            averageWorkedHours = calculateAverageWorkedHours()
+                            averageWorkedHours = statistics
+                                    .getAverageWorkedHours()
                                     .toHoursAsDecimalWithScale(2).toString();
-                            maxEstimatedHours = calculateMaxEstimatedHours()
-                                    .setScale(2).toString();
-                            maxWorkedHours = calculateMaxWorkedHours()
+                            maxEstimatedHours = statistics
+                                    .getMaxEstimatedHours().setScale(2)
+                                    .toString();
+                            maxWorkedHours = statistics.getMaxWorkedHours()
                                     .toHoursAsDecimalWithScale(2)
                                     .setScale(2).toString();
-                            minEstimatedHours = calculateMinEstimatedHours()
-                                    .setScale(2).toString();
-                            minWorkedHours = calculateMinWorkedHours()
+                            minEstimatedHours = statistics
+                                    .getMinEstimatedHours().setScale(2)
+                                    .toString();
+                            minWorkedHours = statistics.getMinWorkedHours()
                                     .toHoursAsDecimalWithScale(2).toString();
                             return null;
                         }
@@ -148,55 +151,6 @@ public class OrderElementHistoricalStatisticsComponent extends
         return minWorkedHours;
     }
 
-    /**
-     * Operations to calculate the historical statistics of the current template
-     */
-
-    public Integer getApplicationsNumber() {
-        return orderElements.size();
-    }
-
-    public Integer getFinishedApplicationsNumber() {
-        return getFinishedApplications().size();
-    }
-
-    public BigDecimal calculateAverageEstimatedHours() {
-        return orderElementDAO.calculateAverageEstimatedHours(orderElements);
-    }
-
-    public EffortDuration calculateAverageWorkedHours() {
-        final List<OrderElement> list = getFinishedApplications();
-        return orderElementDAO.calculateAverageWorkedHours(list);
-    }
-
-    public BigDecimal calculateMaxEstimatedHours() {
-        return orderElementDAO.calculateMaxEstimatedHours(orderElements);
-    }
-
-    public BigDecimal calculateMinEstimatedHours() {
-        return orderElementDAO.calculateMinEstimatedHours(orderElements);
-    }
-
-    public EffortDuration calculateMaxWorkedHours() {
-        final List<OrderElement> list = getFinishedApplications();
-        return orderElementDAO.calculateMaxWorkedHours(list);
-    }
-
-    public EffortDuration calculateMinWorkedHours() {
-        final List<OrderElement> list = getFinishedApplications();
-        return orderElementDAO.calculateMinWorkedHours(list);
-    }
-
-    private List<OrderElement> getFinishedApplications() {
-        List<OrderElement> result = new ArrayList<OrderElement>();
-        for (OrderElement orderElement : orderElements) {
-            if (orderElement.isFinishedAdvance()) {
-                result.add(orderElement);
-            }
-        }
-        return result;
-    }
-
     private Object getBean(String classname) {
         HttpServletRequest servletRequest = (HttpServletRequest) Executions
                 .getCurrent().getNativeRequest();
@@ -33,7 +33,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface ICalendarExceptionTypeService {
 
-    CalendarExceptionTypeListDTO getCalendarExceptionType();
+    CalendarExceptionTypeListDTO getCalendarExceptionType(String after, Integer limit);
 
     InstanceConstraintViolationsListDTO addCalendarExceptionTypes(
             CalendarExceptionTypeListDTO calendarExceptionTypeListDTO);
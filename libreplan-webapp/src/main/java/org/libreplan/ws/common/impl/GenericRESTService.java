@@ -33,6 +33,8 @@ import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.hibernate.notification.IIntegrationEntityChangesRegistry;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChanges;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.api.IntegrationEntityDTO;
@@ -47,9 +49,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class GenericRESTService<E extends IntegrationEntity,
     DTO extends IntegrationEntityDTO> {
 
+    /**
+     * Number of entities returned in a page when only <code>after</code> is
+     * specified.
+     */
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of entities returned in a page, whatever the
+     * <code>limit</code> asked for.
+     */
+    protected static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     protected IAdHocTransactionService transactionService;
 
+    @Autowired
+    private IIntegrationEntityChangesRegistry integrationEntityChangesRegistry;
+
     /**
      * It retrieves all entities.
      */
@@ -57,6 +74,60 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
         return toDTO(getIntegrationEntityDAO().findAll());
     }
 
+    /**
+     * It retrieves a page of entities ordered by code, starting just after
+     * the entity with code <code>after</code> (or from the first one if it is
+     * <code>null</code>) and with at most <code>limit</code> entities, up to
+     * {@link #MAX_PAGE_SIZE}. Clients can ask for the next page passing the
+     * code of the last entity received.
+     *
+     * If both parameters are <code>null</code>, it retrieves all entities.
+     */
+    protected List<DTO> findAll(String after, Integer limit) {
+        if (after == null && limit == null) {
+            return findAll();
+        }
+        int maxResults = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE
+                : Math.min(limit, MAX_PAGE_SIZE);
+        return toDTO(findAfterCode(after, maxResults));
+    }
+
+    /**
+     * It returns the codes of the entities created, updated or removed after
+     * the moment represented by <code>token</code>. If the result is not
+     * complete, clients must retrieve all entities again.
+     */
+    protected IntegrationEntityChanges changesSince(String token) {
+        return integrationEntityChangesRegistry.changesSince(
+                getIntegrationEntityDAO().getEntityClass(), token);
+    }
+
+    /**
+     * It retrieves the entities modified according to <code>changes</code>.
+     * The ones removed since then are skipped.
+     */
+    protected List<DTO> findModified(IntegrationEntityChanges changes) {
+        List<DTO> result = new ArrayList<DTO>();
+        for (String each : changes.getModifiedCodes()) {
+            try {
+                result.add(findByCode(each));
+            } catch (InstanceNotFoundException e) {
+                // removed by a transaction committed after the token was given
+            }
+        }
+        return result;
+    }
+
+    /**
+     * It retrieves the entities of a page for
+     * {@link #findAll(String, Integer)}. Subclasses overriding
+     * {@link #findAll()} must override this too, so the pages cover the same
+     * entities.
+     */
+    protected List<E> findAfterCode(String after, int maxResults) {
+        return getIntegrationEntityDAO().findAfterCode(after, maxResults);
+    }
+
     /**
      * It saves (inserts or updates) a list of entities. Each entity is
      * saved in a separate transaction.
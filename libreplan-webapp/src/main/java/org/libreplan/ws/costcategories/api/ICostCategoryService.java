@@ -34,7 +34,7 @@ public interface ICostCategoryService {
     InstanceConstraintViolationsListDTO addCostCategories(
             CostCategoryListDTO costCategoryListDTO);
 
-    public CostCategoryListDTO getCostCotegories();
+    public CostCategoryListDTO getCostCotegories(String after, Integer limit);
 
     Response getCostCategory(String code);
 }
\ No newline at end of file
@@ -31,7 +31,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface IExpenseSheetService {
 
-    ExpenseSheetListDTO getExpenseSheets();
+    ExpenseSheetListDTO getExpenseSheets(String after, Integer limit);
 
     InstanceConstraintViolationsListDTO addExpenseSheets(
             ExpenseSheetListDTO expenseSheetListDTO);
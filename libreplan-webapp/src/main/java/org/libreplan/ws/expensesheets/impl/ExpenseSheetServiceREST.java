@@ -25,6 +25,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -110,7 +111,8 @@ public class ExpenseSheetServiceREST extends
     @Override
     @GET
     @Transactional(readOnly = true)
-    public ExpenseSheetListDTO getExpenseSheets() {
-        return new ExpenseSheetListDTO(findAll());
+    public ExpenseSheetListDTO getExpenseSheets(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new ExpenseSheetListDTO(findAll(after, limit));
     }
 }
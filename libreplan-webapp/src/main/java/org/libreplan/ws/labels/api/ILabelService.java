@@ -33,7 +33,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface ILabelService {
 
-    LabelTypeListDTO getLabelTypes();
+    LabelTypeListDTO getLabelTypes(String after, Integer limit);
 
     InstanceConstraintViolationsListDTO addLabelTypes(
             LabelTypeListDTO labelTypes);
@@ -31,7 +31,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface IMaterialService {
 
-    public MaterialCategoryListDTO getMaterials();
+    public MaterialCategoryListDTO getMaterials(String after, Integer limit);
 
     public InstanceConstraintViolationsListDTO addMaterials(
             MaterialCategoryListDTO materialCategoryListDTO);
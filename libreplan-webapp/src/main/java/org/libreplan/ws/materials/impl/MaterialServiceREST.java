@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -59,8 +60,9 @@ public class MaterialServiceREST extends
     @Override
     @GET
     @Transactional(readOnly = true)
-    public MaterialCategoryListDTO getMaterials() {
-        return new MaterialCategoryListDTO(findAll());
+    public MaterialCategoryListDTO getMaterials(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new MaterialCategoryListDTO(findAll(after, limit));
     }
 
     @Override
@@ -35,7 +35,9 @@ public interface IOrderElementService {
 
     InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO);
 
-    OrderListDTO getOrders();
+    OrderListDTO getOrders(String after, Integer limit);
+
+    OrderChangesDTO getOrderChanges(String since);
 
     Response getOrderElement(String code);
 
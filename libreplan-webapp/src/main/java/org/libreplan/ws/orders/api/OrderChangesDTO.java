@@ -0,0 +1,69 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
+ *                         Desenvolvemento Tecnolóxico de Galicia
+ * Copyright (C) 2010-2011 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.ws.orders.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.libreplan.ws.common.api.OrderDTO;
+
+/**
+ * DTO for the <code>Order</code> entities changed since a token. If it is not
+ * complete, all orders must be retrieved again. Changes on the elements of
+ * an order are returned as changes of the order.
+ *
+ * The changes are kept in memory by each node, so the result can only be
+ * complete if LibrePlan is built with <code>default.singleNodeDeployment</code>
+ * set to <code>true</code>. Otherwise, or after a restart, it is never
+ * complete.
+ */
+@XmlRootElement(name = "order-changes")
+public class OrderChangesDTO {
+
+    @XmlAttribute
+    public String token;
+
+    @XmlAttribute
+    public boolean complete;
+
+    @XmlElement(name = "order")
+    public List<OrderDTO> orderDTOs = new ArrayList<OrderDTO>();
+
+    @XmlElement(name = "removed-code")
+    public List<String> removedCodes = new ArrayList<String>();
+
+    public OrderChangesDTO() {
+    }
+
+    public OrderChangesDTO(String token, boolean complete,
+            List<OrderDTO> orderDTOs, List<String> removedCodes) {
+        this.token = token;
+        this.complete = complete;
+        this.orderDTOs = orderDTOs;
+        this.removedCodes = removedCodes;
+    }
+
+}
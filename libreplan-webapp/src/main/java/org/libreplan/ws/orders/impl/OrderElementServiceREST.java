@@ -21,6 +21,7 @@
 
 package org.libreplan.ws.orders.impl;
 
+import java.util.ArrayList;
 import java.util.UUID;
 
 import javax.ws.rs.Consumes;
@@ -30,12 +31,14 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChanges;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
@@ -50,6 +53,7 @@ import org.libreplan.ws.common.impl.GenericRESTService;
 import org.libreplan.ws.common.impl.OrderElementConverter;
 import org.libreplan.ws.common.impl.RecoverableErrorException;
 import org.libreplan.ws.orders.api.IOrderElementService;
+import org.libreplan.ws.orders.api.OrderChangesDTO;
 import org.libreplan.ws.orders.api.OrderListDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -79,8 +83,19 @@ public class OrderElementServiceREST
     @Override
     @GET
     @Transactional(readOnly = true)
-    public OrderListDTO getOrders() {
-        return new OrderListDTO(findAll());
+    public OrderListDTO getOrders(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new OrderListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/changes/")
+    @Transactional(readOnly = true)
+    public OrderChangesDTO getOrderChanges(@QueryParam("since") String since) {
+        IntegrationEntityChanges changes = changesSince(since);
+        return new OrderChangesDTO(changes.getToken(), changes.isComplete(),
+                findModified(changes), new ArrayList<String>(changes.getRemovedCodes()));
     }
 
     @Override
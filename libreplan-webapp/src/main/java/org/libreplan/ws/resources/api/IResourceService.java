@@ -41,7 +41,7 @@ public interface IResourceService {
     public InstanceConstraintViolationsListDTO addResources(
         ResourceListDTO resources);
 
-    public ResourceListDTO getResources();
+    public ResourceListDTO getResources(String after, Integer limit);
 
     Response getResource(String code);
 
@@ -32,7 +32,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface ICriterionService {
 
-    public CriterionTypeListDTO getCriterionTypes();
+    public CriterionTypeListDTO getCriterionTypes(String after, Integer limit);
 
     public InstanceConstraintViolationsListDTO addCriterionTypes(
         CriterionTypeListDTO criterionTypes);
@@ -31,6 +31,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
@@ -127,8 +128,9 @@ public class ResourceServiceREST
     @Override
     @GET
     @Transactional(readOnly = true)
-    public ResourceListDTO getResources() {
-        return new ResourceListDTO(findAll());
+    public ResourceListDTO getResources(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new ResourceListDTO(findAll(after, limit));
     }
 
     @Override
@@ -139,6 +141,11 @@ public class ResourceServiceREST
         return toDTO(result);
     }
 
+    @Override
+    protected List<Resource> findAfterCode(String after, int maxResults) {
+        return resourceDAO.findRealResourcesAfterCode(after, maxResults);
+    }
+
     private void generateCodes(Resource resource) {
         // set autogenerated code to CriterionSatisfaction
         for (CriterionSatisfaction satisfaction : resource
@@ -34,7 +34,7 @@ public interface ITypeOfWorkHoursService {
     InstanceConstraintViolationsListDTO addTypeOfWorkHours(
             TypeOfWorkHoursListDTO typeOfWorkHoursListDTO);
 
-    public TypeOfWorkHoursListDTO getTypeOfWorkHours();
+    public TypeOfWorkHoursListDTO getTypeOfWorkHours(String after, Integer limit);
 
     Response getTypeOfWorkHours(String code);
 }
\ No newline at end of file
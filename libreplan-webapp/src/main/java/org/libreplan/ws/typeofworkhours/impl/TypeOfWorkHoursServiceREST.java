@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -60,8 +61,9 @@ public class TypeOfWorkHoursServiceREST extends
     @Override
     @GET
     @Transactional(readOnly = true)
-    public TypeOfWorkHoursListDTO getTypeOfWorkHours() {
-        return new TypeOfWorkHoursListDTO(findAll());
+    public TypeOfWorkHoursListDTO getTypeOfWorkHours(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new TypeOfWorkHoursListDTO(findAll(after, limit));
     }
 
     @Override
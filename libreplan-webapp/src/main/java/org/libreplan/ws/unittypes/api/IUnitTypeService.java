@@ -27,7 +27,7 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 
 public interface IUnitTypeService {
 
-    public UnitTypeListDTO getUnitTypes();
+    public UnitTypeListDTO getUnitTypes(String after, Integer limit);
 
     public InstanceConstraintViolationsListDTO addUnitTypes(
             UnitTypeListDTO unitTypeListDTO);
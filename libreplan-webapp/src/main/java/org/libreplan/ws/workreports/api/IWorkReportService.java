@@ -32,7 +32,9 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface IWorkReportService {
 
-    public WorkReportListDTO getWorkReports();
+    public WorkReportListDTO getWorkReports(String after, Integer limit);
+
+    public WorkReportChangesDTO getWorkReportChanges(String since);
 
     public InstanceConstraintViolationsListDTO addWorkReports(
             WorkReportListDTO workReportListDTO);
@@ -21,6 +21,7 @@
 
 package org.libreplan.ws.workreports.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -32,12 +33,14 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.hibernate.notification.IntegrationEntityChanges;
 import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
@@ -47,6 +50,7 @@ import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.impl.GenericRESTService;
 import org.libreplan.ws.workreports.api.IWorkReportService;
+import org.libreplan.ws.workreports.api.WorkReportChangesDTO;
 import org.libreplan.ws.workreports.api.WorkReportDTO;
 import org.libreplan.ws.workreports.api.WorkReportListDTO;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -77,8 +81,21 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
     @Override
     @GET
     @Transactional(readOnly = true)
-    public WorkReportListDTO getWorkReports() {
-        return new WorkReportListDTO(findAll());
+    public WorkReportListDTO getWorkReports(@QueryParam("after") String after,
+            @QueryParam("limit") Integer limit) {
+        return new WorkReportListDTO(findAll(after, limit));
+    }
+
+    @Override
+    @GET
+    @Path("/changes/")
+    @Transactional(readOnly = true)
+    public WorkReportChangesDTO getWorkReportChanges(
+            @QueryParam("since") String since) {
+        IntegrationEntityChanges changes = changesSince(since);
+        return new WorkReportChangesDTO(changes.getToken(),
+                changes.isComplete(), findModified(changes),
+                new ArrayList<String>(changes.getRemovedCodes()));
     }
 
     @Override
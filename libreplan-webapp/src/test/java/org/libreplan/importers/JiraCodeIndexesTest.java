@@ -0,0 +1,113 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2013 St. Antoniusziekenhuis
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.importers;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * Tests for the indexes by code used by {@link JiraOrderElementSynchronizer}
+ * and {@link JiraTimesheetSynchronizer} to find the order lines and the
+ * timesheet lines of the synchronized issues.
+ */
+public class JiraCodeIndexesTest {
+
+    private static OrderLine orderLine(String code) {
+        OrderLine result = OrderLine.create();
+        result.setCode(code);
+
+        return result;
+    }
+
+    private static WorkReportLine workReportLine(WorkReport workReport, String code) {
+        WorkReportLine result = WorkReportLine.create(workReport);
+        result.setCode(code);
+
+        return result;
+    }
+
+    @Test
+    public void theOrderChildrenAreFoundByTheirExactCode() {
+        OrderLine first = orderLine("JIRA-ORDER-LP-1");
+        OrderLine second = orderLine("JIRA-ORDER-LP-2");
+        List<OrderElement> children = Arrays.<OrderElement> asList(first, second);
+
+        Map<String, OrderElement> index = JiraOrderElementSynchronizer.indexChildrenByCode(children);
+
+        assertThat(index.size(), equalTo(2));
+        assertThat(index.get("JIRA-ORDER-LP-1"), sameInstance((OrderElement) first));
+        assertThat(index.get("JIRA-ORDER-LP-2"), sameInstance((OrderElement) second));
+        assertThat(index.get("jira-order-lp-1"), nullValue());
+    }
+
+    @Test
+    public void theFirstOrderChildWithACodeIsKept() {
+        OrderLine first = orderLine("JIRA-ORDER-LP-1");
+        OrderLine repeated = orderLine("JIRA-ORDER-LP-1");
+
+        Map<String, OrderElement> index = JiraOrderElementSynchronizer.indexChildrenByCode(
+                Arrays.<OrderElement> asList(first, repeated));
+
+        assertThat(index.size(), equalTo(1));
+        assertThat(index.get("JIRA-ORDER-LP-1"), sameInstance((OrderElement) first));
+    }
+
+    @Test
+    public void theTimesheetLinesAreFoundIgnoringCase() {
+        WorkReport workReport = WorkReport.create();
+        WorkReportLine line = workReportLine(workReport, "JIRA-LP-1-10000");
+
+        Map<String, WorkReportLine> index = JiraTimesheetSynchronizer.indexByCode(
+                new LinkedHashSet<>(Arrays.asList(line)));
+
+        assertThat(index.get("JIRA-LP-1-10000"), sameInstance(line));
+        assertThat(index.get("jira-lp-1-10000"), sameInstance(line));
+        assertThat(index.get("Jira-Lp-1-10000"), sameInstance(line));
+        assertThat(index.get("JIRA-LP-1-10001"), nullValue());
+    }
+
+    @Test
+    public void theFirstTimesheetLineWithACodeIgnoringCaseIsKept() {
+        WorkReport workReport = WorkReport.create();
+        WorkReportLine first = workReportLine(workReport, "JIRA-LP-1-10000");
+        WorkReportLine repeated = workReportLine(workReport, "jira-lp-1-10000");
+        WorkReportLine withoutCode = workReportLine(workReport, null);
+
+        Map<String, WorkReportLine> index = JiraTimesheetSynchronizer.indexByCode(
+                new LinkedHashSet<>(Arrays.asList(first, repeated, withoutCode)));
+
+        assertThat(index.size(), equalTo(1));
+        assertThat(index.get("Jira-LP-1-10000"), sameInstance(first));
+    }
+
+}
@@ -19,11 +19,15 @@
 
 package org.libreplan.importers;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 
@@ -33,7 +37,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.libreplan.importers.JiraRESTClient.ISearchPages;
 import org.libreplan.importers.jira.IssueDTO;
+import org.libreplan.importers.jira.SearchResultDTO;
 
 /**
  * Test for {@link JiraRESTClient }
@@ -102,4 +108,120 @@ public class JiraRESTClientTest {
 
         assertTrue(issues.size() > 0);
     }
+
+    /**
+     * Returns the given pages in order and records the startAt of each
+     * request.
+     */
+    private static class StubbedPages implements ISearchPages {
+
+        private final LinkedList<SearchResultDTO> pages;
+
+        private final List<Integer> requested = new ArrayList<>();
+
+        StubbedPages(SearchResultDTO... pages) {
+            this.pages = new LinkedList<>(Arrays.asList(pages));
+        }
+
+        @Override
+        public SearchResultDTO getPage(int startAt) {
+            requested.add(startAt);
+
+            return pages.isEmpty() ? page(null) : pages.removeFirst();
+        }
+    }
+
+    private static int nextKey = 0;
+
+    private static SearchResultDTO page(Integer total, int size) {
+        List<IssueDTO> issues = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            IssueDTO issue = new IssueDTO();
+            issue.setKey("LP-" + nextKey++);
+            issues.add(issue);
+        }
+        SearchResultDTO result = page(total);
+        result.setIssues(issues);
+
+        return result;
+    }
+
+    private static SearchResultDTO page(Integer total) {
+        SearchResultDTO result = new SearchResultDTO();
+        result.setTotal(total);
+        result.setIssues(new ArrayList<IssueDTO>());
+
+        return result;
+    }
+
+    private static List<String> keysOf(List<IssueDTO> issues) {
+        List<String> result = new ArrayList<>();
+        for (IssueDTO each : issues) {
+            result.add(each.getKey());
+        }
+
+        return result;
+    }
+
+    private static List<String> keysOf(SearchResultDTO... pages) {
+        List<String> result = new ArrayList<>();
+        for (SearchResultDTO each : pages) {
+            result.addAll(keysOf(each.getIssues()));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void allThePagesAreRequestedUntilReachingTheTotal() {
+        SearchResultDTO[] pages = { page(7, 3), page(7, 3), page(7, 1) };
+        StubbedPages stubbed = new StubbedPages(pages);
+
+        List<IssueDTO> issues = JiraRESTClient.getAllPages(stubbed);
+
+        assertThat(keysOf(issues), equalTo(keysOf(pages)));
+        assertThat(stubbed.requested, equalTo(Arrays.asList(0, 3, 6)));
+    }
+
+    @Test
+    public void pagesShorterThanRequestedDoNotStopTheSearch() {
+        SearchResultDTO[] pages = { page(5, 2), page(5, 1), page(5, 2) };
+        StubbedPages stubbed = new StubbedPages(pages);
+
+        List<IssueDTO> issues = JiraRESTClient.getAllPages(stubbed);
+
+        assertThat(keysOf(issues), equalTo(keysOf(pages)));
+        assertThat(stubbed.requested, equalTo(Arrays.asList(0, 2, 3)));
+    }
+
+    @Test
+    public void aSinglePageWithAllTheIssuesIsRequestedOnce() {
+        SearchResultDTO[] pages = { page(2, 2) };
+        StubbedPages stubbed = new StubbedPages(pages);
+
+        assertThat(keysOf(JiraRESTClient.getAllPages(stubbed)),
+                equalTo(keysOf(pages)));
+        assertThat(stubbed.requested, equalTo(Arrays.asList(0)));
+    }
+
+    @Test
+    public void withoutTotalThePagesAreRequestedUntilAnEmptyOne() {
+        SearchResultDTO[] pages = { page(null, 2), page(null, 1) };
+        StubbedPages stubbed = new StubbedPages(pages);
+
+        List<IssueDTO> issues = JiraRESTClient.getAllPages(stubbed);
+
+        assertThat(keysOf(issues), equalTo(keysOf(pages)));
+        assertThat(stubbed.requested, equalTo(Arrays.asList(0, 2, 3)));
+    }
+
+    @Test
+    public void anEmptyPageStopsTheSearchEvenIfTheTotalIsNotReached() {
+        SearchResultDTO[] pages = { page(10, 2), page(10) };
+        StubbedPages stubbed = new StubbedPages(pages);
+
+        assertThat(JiraRESTClient.getAllPages(stubbed).size(), equalTo(2));
+        assertThat(stubbed.requested, equalTo(Arrays.asList(0, 2)));
+    }
+
 }
@@ -0,0 +1,498 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.resourceload;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.IntraDayDate.max;
+import static org.libreplan.business.workingday.IntraDayDate.min;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Checks that the periods built by {@link PeriodsBuilder} have the same
+ * boundaries and allocations as the ones built by joining the overlapping
+ * generators pairwise, as it was done before, whenever that joining ended with
+ * no overlapping periods.
+ */
+public class PeriodsBuilderTest {
+
+    private static final LocalDate START = new LocalDate(2012, 6, 4);
+
+    private Map<ResourceAllocation<?>, IntraDayDate[]> intervals;
+
+    private Map<ResourceAllocation<?>, String> names;
+
+    private List<ResourceAllocation<?>> allocations;
+
+    private LoadPeriodGeneratorFactory factory;
+
+    private static class FakeGenerator extends LoadPeriodGenerator {
+
+        FakeGenerator(IntraDayDate start, IntraDayDate end, List<ResourceAllocation<?>> allocationsOnInterval) {
+            super(start, end, allocationsOnInterval);
+        }
+
+        @Override
+        protected LoadPeriodGenerator create(IntraDayDate start, IntraDayDate end,
+                                             List<ResourceAllocation<?>> allocationsOnInterval) {
+            return new FakeGenerator(start, end, allocationsOnInterval);
+        }
+
+        @Override
+        protected EffortDuration getTotalAvailableEffort() {
+            return EffortDuration.zero();
+        }
+
+        @Override
+        protected EffortDuration getEffortAssigned() {
+            return EffortDuration.zero();
+        }
+
+        @Override
+        protected EffortDuration getAssignedEffortFor(ResourceAllocation<?> resourceAllocation) {
+            return EffortDuration.zero();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        intervals = new HashMap<>();
+        names = new HashMap<>();
+        allocations = new ArrayList<>();
+        factory = allocation -> {
+            IntraDayDate[] interval = intervals.get(allocation);
+            return new FakeGenerator(interval[0], interval[1],
+                    Collections.<ResourceAllocation<?>> singletonList(allocation));
+        };
+    }
+
+    private static IntraDayDate day(int day) {
+        return IntraDayDate.startOfDay(START.plusDays(day));
+    }
+
+    private static IntraDayDate day(int day, int hours) {
+        return IntraDayDate.create(START.plusDays(day), EffortDuration.hours(hours));
+    }
+
+    private void givenAllocation(IntraDayDate start, IntraDayDate end) {
+        ResourceAllocation<?> allocation = createNiceMock(SpecificResourceAllocation.class);
+        expect(allocation.isSatisfied()).andReturn(true).anyTimes();
+        replay(allocation);
+
+        intervals.put(allocation, new IntraDayDate[] { start, end });
+        names.put(allocation, "a" + allocations.size());
+        allocations.add(allocation);
+    }
+
+    private List<ResourceAllocation<?>> sortedByStartDate() {
+        List<ResourceAllocation<?>> result = new ArrayList<>(allocations);
+        result.sort(Comparator.comparing(each -> intervals.get(each)[0]));
+
+        return result;
+    }
+
+    private String describe(LoadPeriodGenerator generator) {
+        Set<String> allocationNames = new TreeSet<>();
+        for (ResourceAllocation<?> each : generator.getAllocationsOnInterval()) {
+            allocationNames.add(names.get(each));
+        }
+
+        return generator.getStart() + " - " + generator.getEnd() + " " + allocationNames;
+    }
+
+    private List<String> describe(List<LoadPeriodGenerator> generators) {
+        List<String> result = new ArrayList<>();
+        for (LoadPeriodGenerator each : sortedByStart(generators)) {
+            result.add(describe(each));
+        }
+
+        return result;
+    }
+
+    private static List<LoadPeriodGenerator> sortedByStart(List<LoadPeriodGenerator> generators) {
+        List<LoadPeriodGenerator> result = new ArrayList<>(generators);
+        result.sort(Comparator.comparing(LoadPeriodGenerator::getStart).thenComparing(LoadPeriodGenerator::getEnd));
+
+        return result;
+    }
+
+    private List<String> swept() {
+        return describe(PeriodsBuilder.buildGenerators(factory, sortedByStartDate()));
+    }
+
+    /**
+     * The generators as they were built before, without the empty ones. A
+     * zero-length allocation outside any other one used to give an empty
+     * period, which isn't built anymore.
+     */
+    private List<String> joinedPairwise() {
+        List<LoadPeriodGenerator> result = new PairwiseJoin(factory, sortedByStartDate()).build();
+        result.removeIf(each -> each.getStart().equals(each.getEnd()));
+
+        return describe(result);
+    }
+
+    private void assertSameAsJoinedPairwise() {
+        assertThat(swept(), equalTo(joinedPairwise()));
+    }
+
+    @Test
+    public void disjointAllocationsAreKeptAsTheyAre() {
+        givenAllocation(day(0), day(2));
+        givenAllocation(day(3), day(5));
+
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(2) + " [a0]",
+                day(3) + " - " + day(5) + " [a1]")));
+        assertSameAsJoinedPairwise();
+    }
+
+    @Test
+    public void overlappingAllocationsAreSplitAtTheirBoundaries() {
+        givenAllocation(day(0), day(4));
+        givenAllocation(day(2), day(6));
+
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(2) + " [a0]",
+                day(2) + " - " + day(4) + " [a0, a1]",
+                day(4) + " - " + day(6) + " [a1]")));
+        assertSameAsJoinedPairwise();
+    }
+
+    @Test
+    public void nestedAllocationsAreSplitAroundTheInnerOne() {
+        givenAllocation(day(0), day(10));
+        givenAllocation(day(3), day(5));
+        givenAllocation(day(4, 2), day(4, 6));
+
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(3) + " [a0]",
+                day(3) + " - " + day(4, 2) + " [a0, a1]",
+                day(4, 2) + " - " + day(4, 6) + " [a0, a1, a2]",
+                day(4, 6) + " - " + day(5) + " [a0, a1]",
+                day(5) + " - " + day(10) + " [a0]")));
+        assertSameAsJoinedPairwise();
+    }
+
+    @Test
+    public void touchingAllocationsAreNotJoined() {
+        givenAllocation(day(0), day(2));
+        givenAllocation(day(2), day(4));
+        givenAllocation(day(2), day(4));
+
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(2) + " [a0]",
+                day(2) + " - " + day(4) + " [a1, a2]")));
+        assertSameAsJoinedPairwise();
+    }
+
+    @Test
+    public void zeroLengthAllocationsOnlySplitThePeriodsContainingThem() {
+        givenAllocation(day(0), day(0));
+        givenAllocation(day(0), day(4));
+        givenAllocation(day(2), day(2));
+        givenAllocation(day(4), day(4));
+        givenAllocation(day(6), day(6));
+
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(2) + " [a1]",
+                day(2) + " - " + day(4) + " [a1]")));
+        assertSameAsJoinedPairwise();
+    }
+
+    /**
+     * Joining pairwise only looked at the next generator, so an overlap after
+     * one not overlapping was left as it was.
+     */
+    @Test
+    public void overlapsNotNextToEachOtherAreJoinedToo() {
+        givenAllocation(day(0), day(4));
+        givenAllocation(day(0), day(0));
+        givenAllocation(day(2), day(6));
+
+        assertThat(joinedPairwise(), equalTo(Arrays.asList(
+                day(0) + " - " + day(4) + " [a0]",
+                day(2) + " - " + day(6) + " [a2]")));
+        assertThat(swept(), equalTo(Arrays.asList(
+                day(0) + " - " + day(2) + " [a0]",
+                day(2) + " - " + day(4) + " [a0, a2]",
+                day(4) + " - " + day(6) + " [a2]")));
+    }
+
+    @Test
+    public void givesTheSamePeriodsThanJoiningPairwise() {
+        Random random = new Random(7);
+        int compared = 0;
+        for (int i = 0; i < 500; i++) {
+            setUp();
+            int size = 1 + random.nextInt(8);
+            for (int j = 0; j < size; j++) {
+                IntraDayDate start = randomDate(random);
+                IntraDayDate end = random.nextInt(6) == 0 ? start : randomDate(random);
+                givenAllocation(min(start, end), max(start, end));
+            }
+
+            List<LoadPeriodGenerator> swept = PeriodsBuilder.buildGenerators(factory, sortedByStartDate());
+            assertArePeriodsOfTheAllocations(swept);
+
+            if ( !overlapping(new PairwiseJoin(factory, sortedByStartDate()).build()) ) {
+                assertSameAsJoinedPairwise();
+                compared++;
+            }
+        }
+        assertTrue(compared > 250);
+    }
+
+    private static boolean overlapping(List<LoadPeriodGenerator> generators) {
+        for (LoadPeriodGenerator each : generators) {
+            for (LoadPeriodGenerator other : generators) {
+                if ( each != other && PairwiseJoin.overlaps(each, other) ) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The periods don't overlap, each one has the allocations covering it and
+     * the periods of an allocation go from its start to its end without gaps.
+     */
+    private void assertArePeriodsOfTheAllocations(List<LoadPeriodGenerator> generators) {
+        assertTrue(!overlapping(generators));
+
+        for (LoadPeriodGenerator each : generators) {
+            Set<ResourceAllocation<?>> covering = new HashSet<>();
+            for (ResourceAllocation<?> allocation : allocations) {
+                IntraDayDate[] interval = intervals.get(allocation);
+                if ( interval[0].compareTo(each.getStart()) <= 0 && each.getEnd().compareTo(interval[1]) <= 0 ) {
+                    covering.add(allocation);
+                }
+            }
+            assertThat(new HashSet<>(each.getAllocationsOnInterval()), equalTo(covering));
+        }
+
+        for (ResourceAllocation<?> allocation : allocations) {
+            IntraDayDate[] interval = intervals.get(allocation);
+            if ( interval[0].equals(interval[1]) ) {
+                continue;
+            }
+
+            IntraDayDate reached = interval[0];
+            for (LoadPeriodGenerator each : sortedByStart(generators)) {
+                if ( each.getAllocationsOnInterval().contains(allocation) ) {
+                    assertThat(each.getStart(), equalTo(reached));
+                    reached = each.getEnd();
+                }
+            }
+            assertThat(reached, equalTo(interval[1]));
+        }
+    }
+
+    private static IntraDayDate randomDate(Random random) {
+        int day = random.nextInt(10);
+        return random.nextBoolean() ? day(day) : day(day, 1 + random.nextInt(7));
+    }
+
+    /**
+     * The joining of overlapping generators as it was done before sweeping
+     * their boundaries.
+     */
+    private static class PairwiseJoin {
+
+        private final List<LoadPeriodGenerator> loadPeriodsGenerators = new LinkedList<>();
+
+        PairwiseJoin(LoadPeriodGeneratorFactory factory, List<ResourceAllocation<?>> sortedByStartDate) {
+            for (ResourceAllocation<?> each : sortedByStartDate) {
+                loadPeriodsGenerators.add(factory.create(each));
+            }
+        }
+
+        List<LoadPeriodGenerator> build() {
+            ListIterator<LoadPeriodGenerator> iterator = loadPeriodsGenerators.listIterator();
+
+            while (iterator.hasNext()) {
+                final LoadPeriodGenerator current = findNextOneOverlapping(iterator);
+
+                if ( current != null ) {
+                    rewind(iterator, current);
+                    iterator.remove();
+                    LoadPeriodGenerator next = iterator.next();
+                    iterator.remove();
+                    List<LoadPeriodGenerator> generated = join(current, next);
+                    final LoadPeriodGenerator positionToComeBack = generated.get(0);
+
+                    final List<LoadPeriodGenerator> remaining =
+                            loadPeriodsGenerators.subList(iterator.nextIndex(), loadPeriodsGenerators.size());
+
+                    List<LoadPeriodGenerator> generatorsSortedByStartDate =
+                            mergeListsKeepingByStartSortOrder(generated, remaining);
+
+                    final int takenFromRemaining = generatorsSortedByStartDate.size() - generated.size();
+                    for (int i = 0; i < takenFromRemaining; i++) {
+                        iterator.next();
+                        iterator.remove();
+                    }
+                    for (LoadPeriodGenerator each : generatorsSortedByStartDate) {
+                        iterator.add(each);
+                    }
+                    rewind(iterator, positionToComeBack);
+                }
+            }
+
+            return new ArrayList<>(loadPeriodsGenerators);
+        }
+
+        private static List<LoadPeriodGenerator> join(LoadPeriodGenerator current, LoadPeriodGenerator next) {
+            if ( !overlaps(current, next) ) {
+                return stripEmpty(current, next);
+            }
+
+            if ( isIncluded(current, next) ) {
+                return stripEmpty(
+                        until(current, next.getStart()), intersect(current, next), from(current, next.getEnd()));
+            }
+
+            return stripEmpty(
+                    until(current, next.getStart()), intersect(current, next), from(next, current.getEnd()));
+        }
+
+        static boolean overlaps(LoadPeriodGenerator one, LoadPeriodGenerator other) {
+            return one.getStart().compareTo(other.getEnd()) < 0 && other.getStart().compareTo(one.getEnd()) < 0;
+        }
+
+        private static boolean isIncluded(LoadPeriodGenerator one, LoadPeriodGenerator other) {
+            return other.getStart().compareTo(one.getStart()) >= 0 && other.getEnd().compareTo(one.getEnd()) <= 0;
+        }
+
+        private static LoadPeriodGenerator intersect(LoadPeriodGenerator one, LoadPeriodGenerator other) {
+            List<ResourceAllocation<?>> allocations = new ArrayList<>(one.getAllocationsOnInterval());
+            allocations.addAll(other.getAllocationsOnInterval());
+
+            return one.create(
+                    max(one.getStart(), other.getStart()), min(one.getEnd(), other.getEnd()), allocations);
+        }
+
+        private static LoadPeriodGenerator from(LoadPeriodGenerator generator, IntraDayDate newStart) {
+            return generator.create(newStart, generator.getEnd(), generator.getAllocationsOnInterval());
+        }
+
+        private static LoadPeriodGenerator until(LoadPeriodGenerator generator, IntraDayDate newEnd) {
+            return generator.create(generator.getStart(), newEnd, generator.getAllocationsOnInterval());
+        }
+
+        private static List<LoadPeriodGenerator> stripEmpty(LoadPeriodGenerator... generators) {
+            List<LoadPeriodGenerator> result = new ArrayList<>();
+            for (LoadPeriodGenerator each : generators) {
+                if ( !each.getStart().equals(each.getEnd()) ) {
+                    result.add(each);
+                }
+            }
+
+            return result;
+        }
+
+        private static LoadPeriodGenerator findNextOneOverlapping(ListIterator<LoadPeriodGenerator> iterator) {
+            while (iterator.hasNext()) {
+                LoadPeriodGenerator current = iterator.next();
+
+                if ( !iterator.hasNext() ) {
+                    return null;
+                }
+
+                if ( overlaps(current, peekNext(iterator)) ) {
+                    return current;
+                }
+            }
+
+            return null;
+        }
+
+        private static void rewind(ListIterator<LoadPeriodGenerator> iterator, LoadPeriodGenerator nextOne) {
+            while (peekNext(iterator) != nextOne) {
+                iterator.previous();
+            }
+        }
+
+        private static List<LoadPeriodGenerator> mergeListsKeepingByStartSortOrder(
+                List<LoadPeriodGenerator> joined, List<LoadPeriodGenerator> remaining) {
+
+            List<LoadPeriodGenerator> result = new ArrayList<>();
+            ListIterator<LoadPeriodGenerator> joinedIterator = joined.listIterator();
+            ListIterator<LoadPeriodGenerator> remainingIterator = remaining.listIterator();
+
+            while (joinedIterator.hasNext() && remainingIterator.hasNext()) {
+                LoadPeriodGenerator fromJoined = peekNext(joinedIterator);
+                LoadPeriodGenerator fromRemaining = peekNext(remainingIterator);
+
+                if ( fromJoined.getStart().compareTo(fromRemaining.getStart()) <= 0 ) {
+                    result.add(fromJoined);
+                    joinedIterator.next();
+                } else {
+                    result.add(fromRemaining);
+                    remainingIterator.next();
+                }
+            }
+            if ( joinedIterator.hasNext() ) {
+                result.addAll(joined.subList(joinedIterator.nextIndex(), joined.size()));
+            }
+
+            return result;
+        }
+
+        private static LoadPeriodGenerator peekNext(ListIterator<LoadPeriodGenerator> iterator) {
+            if ( !iterator.hasNext() ) {
+                return null;
+            }
+
+            LoadPeriodGenerator result = iterator.next();
+            iterator.previous();
+
+            return result;
+        }
+    }
+
+}
@@ -83,7 +83,7 @@ public class CalendarExceptionTypeServiceTest {
     @Transactional
     public void exportExceptionTypes() {
         CalendarExceptionTypeListDTO list = calendarExceptionTypeService
-                .getCalendarExceptionType();
+                .getCalendarExceptionType(null, null);
         assertTrue(list.calendarExceptionTypes.isEmpty());
     }
 
@@ -93,7 +93,7 @@ public class CalendarExceptionTypeServiceTest {
         CalendarExceptionType calendarExceptionType = givenCalendarExceptionTypeStored();
 
         CalendarExceptionTypeListDTO list = calendarExceptionTypeService
-                .getCalendarExceptionType();
+                .getCalendarExceptionType(null, null);
         assertThat(list.calendarExceptionTypes.size(), equalTo(1));
 
         CalendarExceptionTypeDTO calendarExceptionTypeDTO = list.calendarExceptionTypes
@@ -103,7 +103,7 @@ public class LabelServiceTest {
     @Transactional
     public void exportLabelTypes() {
         int previous = labelTypeDAO.getAll().size();
-        LabelTypeListDTO labelTypes = labelService.getLabelTypes();
+        LabelTypeListDTO labelTypes = labelService.getLabelTypes(null, null);
         assertTrue(labelTypes.labelTypes.size() == previous);
     }
 
@@ -114,7 +114,7 @@ public class LabelServiceTest {
 
         LabelType labelType = givenLabelTypeStored();
 
-        LabelTypeListDTO labelTypes = labelService.getLabelTypes();
+        LabelTypeListDTO labelTypes = labelService.getLabelTypes(null, null);
         assertThat(labelTypes.labelTypes.size(), equalTo(previous + 1));
 
         for (LabelTypeDTO typeDTO : labelTypes.labelTypes) {
@@ -126,6 +126,73 @@ public class LabelServiceTest {
         fail();
     }
 
+    private List<String> givenLabelTypesStoredWithCodes(String... codes) {
+        List<String> result = new ArrayList<>();
+        for (String each : codes) {
+            labelTypeDAO.save(LabelType.create(each, "label-type-name" + UUID.randomUUID()));
+            result.add(each);
+        }
+        labelTypeDAO.flush();
+        return result;
+    }
+
+    private List<String> codesOf(LabelTypeListDTO labelTypes) {
+        List<String> result = new ArrayList<>();
+        for (LabelTypeDTO each : labelTypes.labelTypes) {
+            result.add(each.code);
+        }
+        return result;
+    }
+
+    private List<String> codesByPages(String after, int limit) {
+        List<String> result = new ArrayList<>();
+        List<String> page;
+        do {
+            page = codesOf(labelService.getLabelTypes(after, limit));
+            assertTrue(page.size() <= limit);
+            result.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == limit);
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void exportLabelTypesByPages() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenLabelTypesStoredWithCodes(prefix + "2", prefix + "10", prefix + "1", prefix + "1a", prefix + "11");
+
+        List<String> all = codesOf(labelService.getLabelTypes(null, null));
+        assertThat(codesByPages(null, 2), equalTo(all));
+        assertThat(codesByPages(null, 3), equalTo(all));
+    }
+
+    @Test
+    @Transactional
+    public void exportLabelTypesAfterACode() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenLabelTypesStoredWithCodes(prefix + "2", prefix + "10", prefix + "1", prefix + "1a", prefix + "11");
+
+        assertThat(codesOf(labelService.getLabelTypes(prefix, 2)),
+                equalTo(Arrays.asList(prefix + "1", prefix + "10")));
+        assertThat(codesOf(labelService.getLabelTypes(prefix + "10", 2)),
+                equalTo(Arrays.asList(prefix + "11", prefix + "1a")));
+        assertThat(codesOf(labelService.getLabelTypes(prefix + "1a", 1)),
+                equalTo(Arrays.asList(prefix + "2")));
+    }
+
+    @Test
+    @Transactional
+    public void exportLabelTypesWithoutLimitUsesTheDefaultPageSize() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenLabelTypesStoredWithCodes(prefix + "1", prefix + "2");
+
+        assertThat(codesOf(labelService.getLabelTypes(prefix, null)).subList(0, 2),
+                equalTo(Arrays.asList(prefix + "1", prefix + "2")));
+    }
+
     @Test
     @Transactional
     public void importInvalidLabelWithoutAttributes() {
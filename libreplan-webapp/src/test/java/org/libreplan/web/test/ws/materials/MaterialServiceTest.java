@@ -21,6 +21,8 @@
 
 package org.libreplan.web.test.ws.materials;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -32,7 +34,9 @@ import static org.libreplan.web.test.ws.common.Util.getUniqueName;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import javax.annotation.Resource;
 
@@ -303,6 +307,70 @@ public class MaterialServiceTest {
 
     }
 
+    private List<String> givenCategoriesWithASubcategoryEachStored(String... codes) {
+        List<MaterialCategoryDTO> categories = new ArrayList<>();
+        for (String each : codes) {
+            MaterialCategoryDTO subcategory =
+                    new MaterialCategoryDTO(each + "-sub", each + "-sub", each, null, null);
+
+            categories.add(new MaterialCategoryDTO(
+                    each, each, null, createMaterialCategoryListDTO(subcategory), null));
+        }
+
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList = materialService
+                .addMaterials(new MaterialCategoryListDTO(categories)).instanceConstraintViolationsList;
+
+        assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.isEmpty());
+        materialCategoryDAO.flush();
+
+        return Arrays.asList(codes);
+    }
+
+    private List<String> codesOf(MaterialCategoryListDTO materialCategories) {
+        List<String> result = new ArrayList<>();
+        for (MaterialCategoryDTO each : materialCategories.materialCategoryDTOs) {
+            result.add(each.code);
+        }
+        return result;
+    }
+
+    private List<String> codesByPages(String after, int limit) {
+        List<String> result = new ArrayList<>();
+        List<String> page;
+        do {
+            page = codesOf(materialService.getMaterials(after, limit));
+            assertTrue(page.size() <= limit);
+            result.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == limit);
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void exportMaterialCategoriesByPages() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenCategoriesWithASubcategoryEachStored(prefix + "2", prefix + "10", prefix + "1");
+
+        List<String> all = codesOf(materialService.getMaterials(null, null));
+        assertThat(codesByPages(null, 2), equalTo(all));
+        assertThat(codesByPages(null, 3), equalTo(all));
+    }
+
+    @Test
+    @Transactional
+    public void exportMaterialCategoriesByPagesOnlyListsTheRootCategories() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenCategoriesWithASubcategoryEachStored(prefix + "2", prefix + "1");
+
+        assertThat(codesOf(materialService.getMaterials(prefix, 2)),
+                equalTo(Arrays.asList(prefix + "1", prefix + "2")));
+        assertThat(codesOf(materialService.getMaterials(prefix + "1", 1)),
+                equalTo(Arrays.asList(prefix + "2")));
+    }
+
     private MaterialCategoryListDTO createMaterialCategoryListDTO(MaterialCategoryDTO... materialCategoryDTOs) {
 
         List<MaterialCategoryDTO> materialCategoryList = new ArrayList<>();
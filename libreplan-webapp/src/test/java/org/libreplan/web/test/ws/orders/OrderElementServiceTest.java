@@ -37,6 +37,8 @@ import static org.libreplan.web.test.ws.common.Util.mustEnd;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -50,12 +52,14 @@ import javax.ws.rs.core.Response.Status;
 
 import org.hibernate.SessionFactory;
 import org.joda.time.LocalDate;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
 import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+import org.libreplan.business.common.Configuration;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -93,6 +97,7 @@ import org.libreplan.ws.common.api.OrderLineGroupDTO;
 import org.libreplan.ws.common.api.ResourceEnumDTO;
 import org.libreplan.ws.common.impl.DateConverter;
 import org.libreplan.ws.orders.api.IOrderElementService;
+import org.libreplan.ws.orders.api.OrderChangesDTO;
 import org.libreplan.ws.orders.api.OrderListDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -1962,6 +1967,168 @@ public class OrderElementServiceTest {
         assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.size() == 1);
     }
 
+    private void givenOrderWithOrderLineStored(String code, String orderLineCode) {
+        OrderDTO orderDTO = createOrderDTO(code);
+        OrderLineDTO orderLineDTO = createOrderLineDTO(orderLineCode);
+        orderLineDTO.hoursGroups.add(new HoursGroupDTO(
+                "hours-group-" + UUID.randomUUID().toString(),
+                ResourceEnumDTO.WORKER, 1000,
+                new HashSet<>()));
+        orderDTO.children.add(orderLineDTO);
+
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+                orderElementService.addOrders(createOrderListDTO(orderDTO)).instanceConstraintViolationsList;
+
+        assertThat(instanceConstraintViolationsList.size(), equalTo(0));
+    }
+
+    private final boolean singleNodeDeploymentConfigured = Configuration.isSingleNodeDeployment();
+
+    private void givenSingleNodeDeployment(boolean singleNode) {
+        Configuration.getInstance().setSingleNodeDeployment(singleNode);
+    }
+
+    @After
+    public void restoreSingleNodeDeployment() {
+        Configuration.getInstance().setSingleNodeDeployment(singleNodeDeploymentConfigured);
+    }
+
+    private String currentChangesToken() {
+        return orderElementService.getOrderChanges(null).token;
+    }
+
+    private static List<String> codesOf(OrderChangesDTO changes) {
+        List<String> result = new ArrayList<>();
+        for (OrderDTO each : changes.orderDTOs) {
+            result.add(each.code);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void changesOnlyOnAnOrderLineAreReportedAsChangesOfItsOrder() {
+        givenSingleNodeDeployment(true);
+        final String code = "order-code-" + UUID.randomUUID().toString();
+        final String orderLineCode = "order-line-code-" + UUID.randomUUID().toString();
+        givenOrderWithOrderLineStored(code, orderLineCode);
+        String token = currentChangesToken();
+
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    OrderLine orderLine = (OrderLine) orderElementDAO.findUniqueByCode(orderLineCode);
+                    orderLine.setName("Order line " + UUID.randomUUID().toString());
+                    orderLine.getHoursGroups().get(0).setWorkingHours(2000);
+
+                    return null;
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        OrderChangesDTO changes = orderElementService.getOrderChanges(token);
+        assertTrue(changes.complete);
+        assertThat(codesOf(changes), equalTo(Collections.singletonList(code)));
+        assertTrue(changes.removedCodes.isEmpty());
+    }
+
+    @Test
+    public void renamingAnOrderIsReportedAsTheRemovalOfTheOldCode() {
+        givenSingleNodeDeployment(true);
+        final String code = "order-code-" + UUID.randomUUID().toString();
+        final String newCode = "order-code-" + UUID.randomUUID().toString();
+        givenOrderWithOrderLineStored(code, "order-line-code-" + UUID.randomUUID().toString());
+        String token = currentChangesToken();
+
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    orderElementDAO.findUniqueByCode(code).setCode(newCode);
+
+                    return null;
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        OrderChangesDTO changes = orderElementService.getOrderChanges(token);
+        assertTrue(changes.complete);
+        assertThat(codesOf(changes), equalTo(Collections.singletonList(newCode)));
+        assertThat(changes.removedCodes, equalTo(Collections.singletonList(code)));
+    }
+
+    @Test
+    public void changesAreNeverCompleteIfTheDeploymentIsNotSingleNode() {
+        givenSingleNodeDeployment(false);
+        String token = currentChangesToken();
+        givenOrderWithOrderLineStored("order-code-" + UUID.randomUUID().toString(),
+                "order-line-code-" + UUID.randomUUID().toString());
+
+        OrderChangesDTO changes = orderElementService.getOrderChanges(token);
+        assertFalse(changes.complete);
+        assertTrue(changes.orderDTOs.isEmpty());
+        assertTrue(changes.removedCodes.isEmpty());
+    }
+
+    private static List<String> codesOf(OrderListDTO orders) {
+        List<String> result = new ArrayList<>();
+        for (OrderDTO each : orders.orderDTOs) {
+            result.add(each.code);
+        }
+
+        return result;
+    }
+
+    private List<String> codesByPages(String after, int limit) {
+        List<String> result = new ArrayList<>();
+        List<String> page;
+        do {
+            page = codesOf(orderElementService.getOrders(after, limit));
+            assertTrue(page.size() <= limit);
+            result.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == limit);
+
+        return result;
+    }
+
+    private void givenOrdersStoredWithCodes(String... codes) {
+        for (String each : codes) {
+            givenOrderWithOrderLineStored(each, each + "-line");
+        }
+        orderDAO.flush();
+    }
+
+    @Test
+    @Transactional
+    public void exportOrdersByPages() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenOrdersStoredWithCodes(prefix + "2", prefix + "10", prefix + "1");
+
+        List<String> all = codesOf(orderElementService.getOrders(null, null));
+        assertThat(codesByPages(null, 2), equalTo(all));
+        assertThat(codesByPages(null, 3), equalTo(all));
+    }
+
+    @Test
+    @Transactional
+    public void exportOrdersAfterACode() {
+        String prefix = UUID.randomUUID().toString().replace("-", "");
+        givenOrdersStoredWithCodes(prefix + "2", prefix + "10", prefix + "1");
+
+        assertThat(codesOf(orderElementService.getOrders(prefix, 2)),
+                equalTo(Arrays.asList(prefix + "1", prefix + "10")));
+        assertThat(codesOf(orderElementService.getOrders(prefix + "10", 1)),
+                equalTo(Collections.singletonList(prefix + "2")));
+    }
+
     private OrderDTO createOrderDTO(String code) {
         OrderDTO result = new OrderDTO();
         result.initDate = DateConverter.toXMLGregorianCalendar(new Date());
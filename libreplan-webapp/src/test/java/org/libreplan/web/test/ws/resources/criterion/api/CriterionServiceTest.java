@@ -230,7 +230,7 @@ public class CriterionServiceTest {
 
         /* Find criterion types. */
         List<CriterionTypeDTO> returnedCriterionTypes =
-            criterionService.getCriterionTypes().criterionTypes;
+            criterionService.getCriterionTypes(null, null).criterionTypes;
 
         /* Test. */
         assertFalse(criterionTypeDAO.existsByCode(ct2.code));
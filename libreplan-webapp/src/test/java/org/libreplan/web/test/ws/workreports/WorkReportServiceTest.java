@@ -48,11 +48,14 @@ import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalTime;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.common.Configuration;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
@@ -79,6 +82,7 @@ import org.libreplan.ws.common.api.LabelReferenceDTO;
 import org.libreplan.ws.common.impl.DateConverter;
 import org.libreplan.ws.workreports.api.DescriptionValueDTO;
 import org.libreplan.ws.workreports.api.IWorkReportService;
+import org.libreplan.ws.workreports.api.WorkReportChangesDTO;
 import org.libreplan.ws.workreports.api.WorkReportDTO;
 import org.libreplan.ws.workreports.api.WorkReportLineDTO;
 import org.libreplan.ws.workreports.api.WorkReportListDTO;
@@ -663,4 +667,48 @@ public class WorkReportServiceTest {
         assertThat(instanceConstraintViolationsListDTO.instanceConstraintViolationsList.size(), equalTo(0));
 
     }
+
+    private final boolean singleNodeDeploymentConfigured = Configuration.isSingleNodeDeployment();
+
+    private void givenSingleNodeDeployment(boolean singleNode) {
+        Configuration.getInstance().setSingleNodeDeployment(singleNode);
+    }
+
+    @After
+    public void restoreSingleNodeDeployment() {
+        Configuration.getInstance().setSingleNodeDeployment(singleNodeDeploymentConfigured);
+    }
+
+    @Test
+    public void changesOnlyOnAWorkReportLineAreReportedAsChangesOfItsWorkReport() {
+        givenSingleNodeDeployment(true);
+        setup();
+        WorkReportDTO workReportDTO = createWorkReportDTO(workReportTypeCode);
+        final String code = workReportDTO.code;
+
+        InstanceConstraintViolationsListDTO instanceConstraintViolationsListDTO =
+                workReportService.addWorkReports(new WorkReportListDTO(Collections.singletonList(workReportDTO)));
+
+        assertThat(instanceConstraintViolationsListDTO.instanceConstraintViolationsList.size(), equalTo(0));
+
+        String token = workReportService.getWorkReportChanges(null).token;
+
+        transactionService.runOnTransaction(() -> {
+            try {
+                WorkReport workReport = workReportDAO.findByCode(code);
+                workReport.getWorkReportLines().iterator().next().setEffort(EffortDuration.hours(4));
+
+                return null;
+            } catch (InstanceNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        WorkReportChangesDTO changes = workReportService.getWorkReportChanges(token);
+        assertTrue(changes.complete);
+        assertThat(changes.workReports.size(), equalTo(1));
+        assertThat(changes.workReports.get(0).code, equalTo(code));
+        assertTrue(changes.removedCodes.isEmpty());
+    }
+
 }